@@ -7,7 +7,11 @@ import threads.*;
 
 
 import java.io.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import static functions.Functions.integral;
 
@@ -39,6 +43,8 @@ public class Main {
 //         nonThread();
 //         complicatedThreads();
 //         simpleThread();
+//         queuePipeline();
+//         asyncService();
 
         System.out.println("---------------The First Task---------------");
         TabulatedFunction f2 = new ArrayTabulatedFunction( 0, 10, 9);
@@ -94,6 +100,7 @@ public class Main {
     public static void nonThread() {
         System.out.println("------------NonThread Выполняется------------");
 
+        ResultSink sink = AsyncResultSink.console();
         Task task = new Task(100);
         for (int i = 0; i < task.getTaskCount(); i++) {
             double logBase = 1 + Math.random() * 9; // [1, 10)
@@ -107,18 +114,17 @@ public class Main {
             task.setRightX(rightX);
             task.setStep(step);
 
-            System.out.println("Source " + "<" + task.getLeftX() + "> " +
-                    "<" + task.getRightX() + "> " + "<" + task.getStep() + "> ");
+            sink.onSource(null, leftX, rightX, step);
 
             try {
                 double integralValue = integral(log, leftX, rightX, step);
-                System.out.println("Result " + "<" + task.getLeftX() + "> " +
-                        "<" + task.getRightX() + "> " + "<" + task.getStep() + "> " + "<" + integralValue + ">");
+                sink.onResult(null, leftX, rightX, step, integralValue);
             } catch (Exception e) {
-                System.out.println("Error!" + e.getMessage());
+                sink.onError(null, e.getMessage());
             }
-            System.out.println();
+            sink.onMessage(null, "");
         }
+        sink.flush();
     }
 
     public static void simpleThread() {
@@ -139,6 +145,7 @@ public class Main {
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
+        AsyncResultSink.console().flush();
     }
 
     public static void complicatedThreads() {
@@ -167,7 +174,58 @@ public class Main {
             generator.join();
             integrator.join();
         } catch (InterruptedException e) {System.out.println("Главный поток был прерван!");}
+        AsyncResultSink.console().flush();
         System.out.println();
     }
 
-}
\ No newline at end of file
+    public static void queuePipeline() {
+        System.out.println("----------queuePipeline----------");
+
+        //четыре обработчика, очереди на 16 заданий
+        IntegrationPipeline pipeline = new IntegrationPipeline(4, 16);
+
+        //метрики выводятся раз в секунду и итогом в конце
+        PipelineMetrics metrics = new PipelineMetrics();
+        pipeline.setMetrics(metrics);
+        //результаты и метрики пишутся через один приемник, чтобы строки не перемешивались
+        ResultSink sink = AsyncResultSink.console();
+        MetricsReporter reporter = new MetricsReporter(metrics, 1, TimeUnit.SECONDS, sink);
+        try {
+            int processed = pipeline.run(100, result -> sink.onResult(null, result));
+            sink.onMessage(null, "Обработано: " + processed);
+        } catch (InterruptedException e) {sink.onMessage(null, "Главный поток был прерван!");}
+        finally {
+            reporter.close();
+        }
+        sink.flush();
+        System.out.println();
+    }
+
+    public static void asyncService() {
+        System.out.println("----------asyncService----------");
+
+        List<IntegrationJob> jobs = new ArrayList<>();
+        for (IntegrationJob job : IntegrationJob.randomJobs(20)) {
+            jobs.add(job);
+        }
+
+        //вычисления на двух потоках; результаты приходят без блокировки главного потока
+        ResultSink sink = AsyncResultSink.console();
+        try (IntegrationService service = new IntegrationService(ExecutionMode.PLATFORM, 2)) {
+            CompletableFuture<Void> printed = service.integrateAll(jobs)
+                    .thenAccept(results -> results.forEach(result -> sink.onResult(null, result)));
+
+            //слишком долгое вычисление прерывается по времени
+            CompletableFuture<Void> timeout = service.integrateAsync(new Sin(), 0, 1e6, 1e-4, 10, TimeUnit.MILLISECONDS)
+                    .handle((value, error) -> {
+                        sink.onMessage(null, error == null ? "Result <" + value + ">" : "Timeout: " + error);
+                        return null;
+                    });
+
+            CompletableFuture.allOf(printed, timeout).join();
+        }
+        sink.flush();
+        System.out.println();
+    }
+
+}
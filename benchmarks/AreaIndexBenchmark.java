@@ -0,0 +1,77 @@
+package benchmarks;
+
+import functions.ArrayTabulatedFunction;
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.Functions;
+
+import java.util.Random;
+
+/**
+ * Время одного интеграла по случайному диапазону для ArrayTabulatedFunction
+ * без индекса площадей (обход отрезков) и с ним (префиксные суммы декартова дерева),
+ * а также время изменения точки и пары вставка + удаление точки в середине таблицы
+ * при включенном индексе (включает сдвиг массива).
+ * Запуск: java -cp out benchmarks.AreaIndexBenchmark
+ */
+public class AreaIndexBenchmark {
+
+    private static final int QUERIES = 10_000;
+
+    private static volatile double sink;
+
+    public static void main(String[] args) throws InappropriateFunctionPointException {
+        System.out.println("Точек\t\tОбход, мкс\tИндекс, мкс\tsetPointY, нс\taddPoint + deletePoint, нс");
+        System.out.println("--------------------------------------------------------------------------------");
+
+        Random random = new Random(42);
+        for (int n = 1_000; n <= 1_000_000; n *= 10) {
+            FunctionPoint[] points = new FunctionPoint[n];
+            for (int i = 0; i < n; i++) {
+                points[i] = new FunctionPoint(i, Math.sin(i * 0.01));
+            }
+            ArrayTabulatedFunction function = new ArrayTabulatedFunction(points);
+
+            double[] bounds = new double[2 * QUERIES];
+            for (int i = 0; i < bounds.length; i += 2) {
+                double a = random.nextDouble() * (n - 1);
+                double b = random.nextDouble() * (n - 1);
+                bounds[i] = Math.min(a, b);
+                bounds[i + 1] = Math.max(a, b);
+            }
+
+            measure(function, bounds);
+            double scanUs = measure(function, bounds);
+
+            function.enableAreaIndex();
+            measure(function, bounds);
+            double indexUs = measure(function, bounds);
+
+            long start = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                function.setPointY(random.nextInt(n), random.nextDouble());
+            }
+            double updateNs = (double) (System.nanoTime() - start) / QUERIES;
+
+            start = System.nanoTime();
+            for (int i = 0; i < QUERIES; i++) {
+                int index = 1 + random.nextInt(n - 2);
+                function.addPoint(new FunctionPoint(index + 0.5, random.nextDouble()));
+                function.deletePoint(index + 1);
+            }
+            double insertNs = (double) (System.nanoTime() - start) / QUERIES;
+
+            System.out.printf("%d\t\t%.2f\t\t%.3f\t\t%.0f\t\t%.0f%n", n, scanUs, indexUs, updateNs, insertNs);
+        }
+    }
+
+    private static double measure(ArrayTabulatedFunction function, double[] bounds) {
+        long start = System.nanoTime();
+        double acc = 0;
+        for (int i = 0; i < bounds.length; i += 2) {
+            acc += Functions.integral(function, bounds[i], bounds[i + 1]);
+        }
+        sink = acc;
+        return (System.nanoTime() - start) / 1e3 / (bounds.length / 2);
+    }
+}
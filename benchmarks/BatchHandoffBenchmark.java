@@ -0,0 +1,58 @@
+package benchmarks;
+
+import functions.basic.Exp;
+import threads.BatchSizer;
+import threads.IntegrationJob;
+import threads.IntegrationPipeline;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Пропускная способность IntegrationPipeline на дешевых интегралах (5 узлов),
+ * когда стоимость передачи задания между потоками сравнима со стоимостью вычисления:
+ * передача по одному заданию, пачками фиксированного размера 1..1024 и адаптивными пачками.
+ * Запуск: java -cp out benchmarks.BatchHandoffBenchmark
+ */
+public class BatchHandoffBenchmark {
+
+    private static final int JOBS = 500_000;
+    private static final int WORKERS = 2;
+    private static final int CAPACITY = 16;
+
+    private static volatile double sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        List<IntegrationJob> jobs = new ArrayList<>(JOBS);
+        Exp exp = new Exp();
+        for (int i = 0; i < JOBS; i++) {
+            jobs.add(new IntegrationJob(i, exp, 0, 1, 0.25));
+        }
+
+        System.out.println("Передача\t\tТыс. заданий/с");
+        System.out.println("----------------------------------------");
+
+        IntegrationPipeline single = new IntegrationPipeline(WORKERS, CAPACITY);
+        measure(single, jobs);
+        System.out.printf("по одному\t\t%.0f%n", measure(single, jobs));
+
+        for (int size = 1; size <= 1024; size *= 2) {
+            IntegrationPipeline pipeline = new IntegrationPipeline(WORKERS, CAPACITY, BatchSizer.fixed(size));
+            measure(pipeline, jobs);
+            System.out.printf("%s\t\t%.0f%n", pipeline.getBatchSizer(), measure(pipeline, jobs));
+        }
+
+        IntegrationPipeline adaptive = new IntegrationPipeline(WORKERS, CAPACITY, BatchSizer.adaptive(1, 1024));
+        measure(adaptive, jobs);
+        System.out.printf("%s\t%.0f%n", adaptive.getBatchSizer(), measure(adaptive, jobs));
+    }
+
+    private static double measure(IntegrationPipeline pipeline, List<IntegrationJob> jobs) throws InterruptedException {
+        double[] acc = new double[1];
+        long start = System.nanoTime();
+        int processed = pipeline.run(jobs, result -> acc[0] += result.getValue());
+        long elapsed = System.nanoTime() - start;
+        sink = acc[0];
+        return processed / (elapsed / 1e6);
+    }
+}
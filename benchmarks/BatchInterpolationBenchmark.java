@@ -0,0 +1,101 @@
+package benchmarks;
+
+import functions.ArrayTabulatedFunction;
+import functions.DoubleArrayTabulatedFunction;
+import functions.FunctionPoint;
+import functions.TabulatedFunction;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Сравнение пакетного вычисления getFunctionValues с поточечным getFunctionValue
+ * для ArrayTabulatedFunction и DoubleArrayTabulatedFunction.
+ * Пакет из 2^20 аргументов: упорядоченный (вычисляется сериями с векторизуемым циклом интерполяции
+ * или проходом слиянием) и неупорядоченный (поиск отрезка для каждого аргумента).
+ * Серии считаются через Vector API, если подключен модуль jdk.incubator.vector, иначе скалярным циклом;
+ * чтобы сравнить оба пути, запустите дважды:
+ * java --add-modules jdk.incubator.vector -cp out benchmarks.BatchInterpolationBenchmark
+ * java -cp out benchmarks.BatchInterpolationBenchmark
+ */
+public class BatchInterpolationBenchmark {
+
+    private static final int BATCH = 1 << 20;
+    private static final int ROUNDS = 10;
+
+    private static volatile double sink;
+
+    public static void main(String[] args) {
+        boolean vector = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                && Boolean.parseBoolean(System.getProperty("functions.vectorKernel", "true"));
+        System.out.println("Серии: " + (vector ? "Vector API" : "скалярный цикл"));
+        System.out.println("Точек\t\tПакет\t\t\tКласс\t\tПоточечно, нс\tПакетно, нс\tУскорение");
+        System.out.println("------------------------------------------------------------------------------------------");
+
+        Random random = new Random(42);
+        for (int n = 100; n <= 1_000_000; n *= 10) {
+            FunctionPoint[] points = new FunctionPoint[n];
+            double x = 0;
+            for (int i = 0; i < n; i++) {
+                points[i] = new FunctionPoint(x, Math.sin(x));
+                x += 0.5 + random.nextDouble();
+            }
+            TabulatedFunction[] functions = {
+                    new ArrayTabulatedFunction(points),
+                    new DoubleArrayTabulatedFunction(points)
+            };
+
+            double[] unordered = new double[BATCH];
+            for (int i = 0; i < BATCH; i++) {
+                unordered[i] = random.nextDouble() * x;
+            }
+            double[] ordered = unordered.clone();
+            Arrays.sort(ordered);
+
+            for (TabulatedFunction function : functions) {
+                run(n, "упорядоченный\t", function, ordered);
+                run(n, "неупорядоченный\t", function, unordered);
+            }
+        }
+    }
+
+    private static void run(int n, String kind, TabulatedFunction function, double[] probes) {
+        double[] out = new double[probes.length];
+        // Прогрев, чтобы сравнивать скомпилированный код
+        for (int round = 0; round < 3; round++) {
+            pointwise(function, probes, out);
+            batch(function, probes, out);
+        }
+
+        long bestPointwise = Long.MAX_VALUE;
+        long bestBatch = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            bestPointwise = Math.min(bestPointwise, pointwise(function, probes, out));
+            bestBatch = Math.min(bestBatch, batch(function, probes, out));
+        }
+
+        double pointwiseNs = (double) bestPointwise / probes.length;
+        double batchNs = (double) bestBatch / probes.length;
+        String name = function.getClass().getSimpleName().replace("TabulatedFunction", "");
+        System.out.printf("%d\t\t%s\t%s\t\t%.2f\t\t%.2f\t\t%.1fx%n",
+                n, kind, name, pointwiseNs, batchNs, pointwiseNs / batchNs);
+    }
+
+    private static long pointwise(TabulatedFunction function, double[] probes, double[] out) {
+        long start = System.nanoTime();
+        for (int i = 0; i < probes.length; i++) {
+            out[i] = function.getFunctionValue(probes[i]);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = out[out.length / 2];
+        return elapsed;
+    }
+
+    private static long batch(TabulatedFunction function, double[] probes, double[] out) {
+        long start = System.nanoTime();
+        function.getFunctionValues(probes, out);
+        long elapsed = System.nanoTime() - start;
+        sink = out[out.length / 2];
+        return elapsed;
+    }
+}
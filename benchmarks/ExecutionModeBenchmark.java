@@ -0,0 +1,74 @@
+package benchmarks;
+
+import threads.ExecutionMode;
+import threads.IntegrationJob;
+import threads.IntegrationResult;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность и задержка (от отправки задания до его завершения)
+ * при выполнении 10^5 и 10^6 небольших заданий в режимах PLATFORM и VIRTUAL.
+ * Все задания отправляются сразу, поэтому задержка включает ожидание в очереди исполнителя.
+ * Режим VIRTUAL доступен начиная с Java 21.
+ * Запуск: java -cp out benchmarks.ExecutionModeBenchmark
+ */
+public class ExecutionModeBenchmark {
+
+    private static volatile double sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        System.out.println("Java " + Runtime.version().feature() + ", ядер: " + threads);
+        System.out.println("Режим\t\tЗаданий\t\tЗаданий/с\tp50, мс\t\tp99, мс");
+        System.out.println("----------------------------------------------------------------");
+
+        for (int count : new int[] {100_000, 1_000_000}) {
+            IntegrationJob[] jobs = new IntegrationJob[count];
+            Random random = new Random(42);
+            for (int i = 0; i < count; i++) {
+                jobs[i] = IntegrationJob.random(i, random);
+            }
+
+            for (ExecutionMode mode : ExecutionMode.values()) {
+                if (!mode.isSupported()) {
+                    System.out.println(mode + "\t\t" + count + "\t\tнедоступен в этой версии Java");
+                    continue;
+                }
+                run(mode, threads, jobs);
+            }
+        }
+    }
+
+    private static void run(ExecutionMode mode, int threads, IntegrationJob[] jobs) throws InterruptedException {
+        long[] latencies = new long[jobs.length];
+        CountDownLatch done = new CountDownLatch(jobs.length);
+
+        ExecutorService executor = mode.newExecutor(threads);
+        long start = System.nanoTime();
+        for (int i = 0; i < jobs.length; i++) {
+            int index = i;
+            long submitted = System.nanoTime();
+            executor.execute(() -> {
+                IntegrationResult result = IntegrationResult.of(jobs[index]);
+                latencies[index] = System.nanoTime() - submitted;
+                sink = result.getValue();
+                done.countDown();
+            });
+        }
+        done.await();
+        long elapsed = System.nanoTime() - start;
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+
+        Arrays.sort(latencies);
+        System.out.printf("%s\t%d\t\t%.0f\t\t%.2f\t\t%.2f%n", mode, jobs.length,
+                jobs.length / (elapsed / 1e9),
+                latencies[latencies.length / 2] / 1e6,
+                latencies[(int) (latencies.length * 0.99)] / 1e6);
+    }
+}
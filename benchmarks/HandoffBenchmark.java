@@ -0,0 +1,162 @@
+package benchmarks;
+
+import threads.JobSlot;
+import threads.SpscRingBuffer;
+import threads.WaitStrategy;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Передача заданий между двумя потоками без вычислений: SpscRingBuffer с разными
+ * способами ожидания против ArrayBlockingQueue.
+ * Пропускная способность - поток из MESSAGES передач подряд.
+ * Задержка - по одной передаче за раз (следующее задание отправляется, когда прочитано предыдущее);
+ * время публикации передается в поле id ячейки.
+ * BUSY_SPIN имеет смысл только при двух свободных ядрах.
+ * Запуск: java -cp out benchmarks.HandoffBenchmark
+ */
+public class HandoffBenchmark {
+
+    private static final int MESSAGES = 5_000_000;
+    private static final int LATENCY_SAMPLES = 100_000;
+    private static final int CAPACITY = 1024;
+
+    public static void main(String[] args) throws InterruptedException {
+        System.out.println("Ядер: " + Runtime.getRuntime().availableProcessors());
+        System.out.println("Транспорт\t\tМлн передач/с\tp50, нс\t\tp99, нс");
+        System.out.println("----------------------------------------------------------------");
+
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            if (strategy == WaitStrategy.BUSY_SPIN && Runtime.getRuntime().availableProcessors() < 2) {
+                System.out.println("ring " + strategy + "\t\tпропущен: нужно хотя бы 2 ядра");
+                continue;
+            }
+            ringThroughput(strategy);
+            double throughput = ringThroughput(strategy);
+            long[] latencies = ringLatency(strategy);
+            print("ring " + strategy + "\t", throughput, latencies);
+        }
+        queueThroughput();
+        print("ArrayBlockingQueue", queueThroughput(), queueLatency());
+    }
+
+    private static void print(String name, double throughput, long[] latencies) {
+        Arrays.sort(latencies);
+        System.out.printf("%s\t%.2f\t\t%d\t\t%d%n", name, throughput,
+                latencies[latencies.length / 2], latencies[(int) (latencies.length * 0.99)]);
+    }
+
+    private static double ringThroughput(WaitStrategy strategy) throws InterruptedException {
+        SpscRingBuffer buffer = new SpscRingBuffer(CAPACITY, strategy);
+        Thread consumer = new Thread(() -> {
+            try {
+                while (buffer.take() != null) {
+                    buffer.release();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            buffer.claim().set(i, null, 0, 1, 0.1);
+            buffer.publish();
+        }
+        buffer.close();
+        consumer.join();
+        return MESSAGES / ((System.nanoTime() - start) / 1e3);
+    }
+
+    private static long[] ringLatency(WaitStrategy strategy) throws InterruptedException {
+        SpscRingBuffer buffer = new SpscRingBuffer(CAPACITY, strategy);
+        long[] latencies = new long[LATENCY_SAMPLES];
+        AtomicLong consumed = new AtomicLong();
+        Thread consumer = new Thread(() -> {
+            try {
+                JobSlot slot;
+                int i = 0;
+                while ((slot = buffer.take()) != null) {
+                    latencies[i++] = System.nanoTime() - slot.getId();
+                    buffer.release();
+                    consumed.lazySet(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        for (int i = 0; i < LATENCY_SAMPLES; i++) {
+            JobSlot slot = buffer.claim();
+            slot.set(System.nanoTime(), null, 0, 1, 0.1);
+            buffer.publish();
+            while (consumed.get() <= i) {
+                Thread.onSpinWait();
+                if (Runtime.getRuntime().availableProcessors() < 2) Thread.yield();
+            }
+        }
+        buffer.close();
+        consumer.join();
+        return latencies;
+    }
+
+    private static double queueThroughput() throws InterruptedException {
+        BlockingQueue<long[]> queue = new ArrayBlockingQueue<>(CAPACITY);
+        long[] end = new long[0];
+        Thread consumer = new Thread(() -> {
+            try {
+                while (queue.take() != end) {
+                    // только передача
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        long[] message = new long[1];
+        long start = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            queue.put(message);
+        }
+        queue.put(end);
+        consumer.join();
+        return MESSAGES / ((System.nanoTime() - start) / 1e3);
+    }
+
+    private static long[] queueLatency() throws InterruptedException {
+        BlockingQueue<long[]> queue = new ArrayBlockingQueue<>(CAPACITY);
+        long[] latencies = new long[LATENCY_SAMPLES];
+        long[] end = new long[0];
+        AtomicLong consumed = new AtomicLong();
+        Thread consumer = new Thread(() -> {
+            try {
+                long[] message;
+                int i = 0;
+                while ((message = queue.take()) != end) {
+                    latencies[i++] = System.nanoTime() - message[0];
+                    consumed.lazySet(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        consumer.start();
+
+        for (int i = 0; i < LATENCY_SAMPLES; i++) {
+            queue.put(new long[] {System.nanoTime()});
+            while (consumed.get() <= i) {
+                Thread.onSpinWait();
+                if (Runtime.getRuntime().availableProcessors() < 2) Thread.yield();
+            }
+        }
+        queue.put(end);
+        consumer.join();
+        return latencies;
+    }
+}
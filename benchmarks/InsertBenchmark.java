@@ -0,0 +1,65 @@
+package benchmarks;
+
+import functions.ArrayTabulatedFunction;
+import functions.FunctionPoint;
+import functions.InappropriateFunctionPointException;
+import functions.LinkedListTabulatedFunction;
+import functions.SkipListTabulatedFunction;
+import functions.TabulatedFunction;
+import functions.TabulatedFunctionFactory;
+
+import java.util.Random;
+
+/**
+ * Нагрузка с частыми вставками в середину: на таблицу из n точек
+ * выполняется m вставок addPoint вперемешку с m вычислениями getFunctionValue.
+ * Сравниваются ArrayTabulatedFunction, LinkedListTabulatedFunction и SkipListTabulatedFunction.
+ * Запуск: java -cp out benchmarks.InsertBenchmark
+ */
+public class InsertBenchmark {
+
+    private static final int INSERTS = 10_000;
+
+    private static volatile double sink;
+
+    public static void main(String[] args) throws InappropriateFunctionPointException {
+        TabulatedFunctionFactory[] factories = {
+                new ArrayTabulatedFunction.ArrayTabulatedFunctionFactory(),
+                new LinkedListTabulatedFunction.LinkedListTabulatedFunctionFactory(),
+                new SkipListTabulatedFunction.SkipListTabulatedFunctionFactory()
+        };
+        String[] names = {"Array", "LinkedList", "SkipList"};
+
+        System.out.println("Точек\t\tРеализация\tмс на " + INSERTS + " вставок и вычислений");
+        System.out.println("------------------------------------------------------------");
+
+        // Прогрев на маленькой таблице
+        for (TabulatedFunctionFactory factory : factories) {
+            run(factory, 1_000);
+        }
+
+        for (int n = 1_000; n <= 100_000; n *= 10) {
+            for (int k = 0; k < factories.length; k++) {
+                double ms = run(factories[k], n);
+                System.out.printf("%d\t\t%s\t%s%.1f%n", n, names[k], names[k].length() < 8 ? "\t" : "", ms);
+            }
+        }
+    }
+
+    private static double run(TabulatedFunctionFactory factory, int n) throws InappropriateFunctionPointException {
+        TabulatedFunction function = factory.createTabulatedFunction(0, n, n + 1);
+        Random random = new Random(7);
+
+        long start = System.nanoTime();
+        double acc = 0;
+        for (int i = 0; i < INSERTS; i++) {
+            // Середина отрезка между целыми точками сетки никогда не совпадает с уже вставленной
+            double x = random.nextInt(n) + (i + 1.0) / (INSERTS + 2);
+            function.addPoint(new FunctionPoint(x, i));
+            acc += function.getFunctionValue(random.nextDouble() * n);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = acc;
+        return elapsed / 1e6;
+    }
+}
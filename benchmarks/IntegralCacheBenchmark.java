@@ -0,0 +1,92 @@
+package benchmarks;
+
+import functions.Function;
+import functions.basic.Log;
+import functions.basic.Sin;
+import functions.meta.Scale;
+import functions.meta.Sum;
+import threads.IntegralCache;
+import threads.IntegrationJob;
+import threads.IntegrationPipeline;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Конвейер на потоке заданий, которые повторяются с распределением Ципфа (несколько частых
+ * интегралов и длинный хвост редких), с примесью разовых заданий: без кэша и с IntegralCache
+ * разного размера. Функции - логарифмы и деревья мета-функций, которые создаются заново
+ * для каждого задания, поэтому попадание в кэш определяется структурным равенством.
+ * Запуск: java -cp out benchmarks.IntegralCacheBenchmark
+ */
+public class IntegralCacheBenchmark {
+
+    private static final int DISTINCT = 4_000;
+    private static final int JOBS = 100_000;
+    private static final double ONE_OFF = 0.1;  // доля разовых заданий
+    private static final int[] SIZES = {0, 100, 500, 2_000};
+
+    private static volatile double sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int workers = Runtime.getRuntime().availableProcessors();
+        List<IntegrationJob> jobs = workload(new Random(42));
+
+        System.out.println("Обработчиков: " + workers + ", заданий: " + JOBS + ", различных частых: " + DISTINCT);
+        System.out.println("Кэш\t\tВремя, мс\tПопаданий\tВытеснено\tНе допущено");
+        System.out.println("---------------------------------------------------------------------");
+        for (int round = 0; round < 2; round++) {
+            for (int size : SIZES) {
+                IntegrationPipeline pipeline = new IntegrationPipeline(workers, 1024);
+                IntegralCache cache = size > 0 ? new IntegralCache(size) : null;
+                pipeline.setCache(cache);
+                double[] acc = new double[1];
+                long start = System.nanoTime();
+                pipeline.run(jobs, result -> acc[0] += result.getValue());
+                double ms = (System.nanoTime() - start) / 1e6;
+                sink = acc[0];
+                if (round == 1) {
+                    if (cache == null) {
+                        System.out.printf("нет\t\t%.1f%n", ms);
+                    } else {
+                        System.out.printf("%d\t\t%.1f\t\t%.1f%%\t\t%d\t\t%d%n", size, ms, cache.getHitRate() * 100,
+                                cache.getEvictions(), cache.getRejections());
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<IntegrationJob> workload(Random random) {
+        double[] cdf = new double[DISTINCT];
+        double total = 0;
+        for (int i = 0; i < DISTINCT; i++) {
+            total += 1.0 / (i + 1);
+            cdf[i] = total;
+        }
+        List<IntegrationJob> jobs = new ArrayList<>(JOBS);
+        for (int i = 0; i < JOBS; i++) {
+            if (random.nextDouble() < ONE_OFF) {
+                jobs.add(new IntegrationJob(i, new Log(2), 1, 1 + random.nextDouble() * 100, 0.05));
+                continue;
+            }
+            int rank = Arrays.binarySearch(cdf, random.nextDouble() * total);
+            int key = rank >= 0 ? rank : -rank - 1;
+            jobs.add(new IntegrationJob(i, function(key), 1, 2 + key * 37 % 100, 0.05)); // длина не зависит от частоты
+        }
+        return jobs;
+    }
+
+    /**
+     * Новый экземпляр функции для ключа: в четных сотнях ключей - логарифм, в нечетных - дерево
+     */
+    private static Function function(int key) {
+        int kind = key / 100;
+        if (kind % 2 == 0) {
+            return new Log(2 + kind);
+        }
+        return new Sum(new Scale(new Sin(), kind, 1), new Log(2 + kind));
+    }
+}
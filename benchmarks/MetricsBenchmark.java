@@ -0,0 +1,88 @@
+package benchmarks;
+
+import functions.basic.Exp;
+import threads.IntegrationJob;
+import threads.IntegrationPipeline;
+import threads.PipelineMetrics;
+import threads.RingGenerator;
+import threads.RingIntegrator;
+import threads.SpscRingBuffer;
+import threads.WaitStrategy;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Цена метрик на горячем пути: пропускная способность конвейера на очереди и кольцевого буфера
+ * на дешевых интегралах (5 узлов) без метрик, с измерением времени каждого задания
+ * и каждого SAMPLE-го, а также итоговые снимки метрик.
+ * Запуск: java -cp out benchmarks.MetricsBenchmark
+ */
+public class MetricsBenchmark {
+
+    private static final int JOBS = 500_000;
+    private static final int SAMPLE = 16;
+
+    private static volatile double sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        List<IntegrationJob> jobs = new ArrayList<>(JOBS);
+        Exp exp = new Exp();
+        for (int i = 0; i < JOBS; i++) {
+            jobs.add(new IntegrationJob(i, exp, 0, 1, 0.25));
+        }
+
+        System.out.println("Конвейер\t\tБез метрик\tКаждое\t\t1 из " + SAMPLE + "  (тыс. заданий/с)");
+        System.out.println("----------------------------------------------------------------");
+
+        PipelineMetrics queueMetrics = null;
+        PipelineMetrics ringMetrics = null;
+        for (int round = 0; round < 2; round++) {
+            IntegrationPipeline pipeline = new IntegrationPipeline(2, 64);
+            double queuePlain = queue(pipeline, jobs);
+            pipeline.setMetrics(new PipelineMetrics());
+            double queueEvery = queue(pipeline, jobs);
+            queueMetrics = new PipelineMetrics(SAMPLE);
+            pipeline.setMetrics(queueMetrics);
+            double queueSampled = queue(pipeline, jobs);
+
+            double ringPlain = ring(jobs, null);
+            double ringEvery = ring(jobs, new PipelineMetrics());
+            ringMetrics = new PipelineMetrics(SAMPLE);
+            double ringSampled = ring(jobs, ringMetrics);
+
+            if (round == 1) {
+                System.out.printf("очередь, 2 потока\t%.0f\t\t%.0f\t\t%.0f%n", queuePlain, queueEvery, queueSampled);
+                System.out.printf("кольцевой буфер\t\t%.0f\t\t%.0f\t\t%.0f%n", ringPlain, ringEvery, ringSampled);
+            }
+        }
+        System.out.println();
+        System.out.println("Очередь, 1 из " + SAMPLE + ": " + queueMetrics.snapshot());
+        System.out.println("Кольцевой буфер, 1 из " + SAMPLE + ": " + ringMetrics.snapshot());
+    }
+
+    private static double queue(IntegrationPipeline pipeline, List<IntegrationJob> jobs) throws InterruptedException {
+        double[] acc = new double[1];
+        long start = System.nanoTime();
+        int processed = pipeline.run(jobs, result -> acc[0] += result.getValue());
+        long elapsed = System.nanoTime() - start;
+        sink = acc[0];
+        return processed / (elapsed / 1e6);
+    }
+
+    private static double ring(List<IntegrationJob> jobs, PipelineMetrics metrics) throws InterruptedException {
+        SpscRingBuffer buffer = new SpscRingBuffer(1024, WaitStrategy.PARK);
+        double[] acc = new double[1];
+        RingIntegrator integrator = new RingIntegrator(buffer, (slot, value, error) -> acc[0] += value, metrics);
+        Thread producer = new Thread(new RingGenerator(buffer, jobs.iterator(), metrics));
+        Thread consumer = new Thread(integrator);
+        long start = System.nanoTime();
+        producer.start();
+        consumer.start();
+        producer.join();
+        consumer.join();
+        long elapsed = System.nanoTime() - start;
+        sink = acc[0];
+        return integrator.getProcessed() / (elapsed / 1e6);
+    }
+}
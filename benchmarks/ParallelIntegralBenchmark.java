@@ -0,0 +1,60 @@
+package benchmarks;
+
+import functions.Function;
+import functions.Functions;
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Log;
+import functions.basic.Sin;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Ускорение параллельного Functions.integral в зависимости от числа потоков пула
+ * на "дорогом" дереве функций. Печатает и сам интеграл: он не должен меняться от числа потоков.
+ * Запуск: java -cp out benchmarks.ParallelIntegralBenchmark
+ */
+public class ParallelIntegralBenchmark {
+
+    private static final double LEFT = 1;
+    private static final double RIGHT = 100;
+    private static final double STEP = 1e-5;
+
+    public static void main(String[] args) {
+        // sin(exp(cos(x))) * ln(x) + log2(x)^1.5
+        Function f = Functions.sum(
+                Functions.mult(Functions.composition(new Sin(), Functions.composition(new Exp(), new Cos())), new Log(Math.E)),
+                Functions.power(new Log(2), 1.5));
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.println("Ядер: " + cores + ", узлов: " + (long) ((RIGHT - LEFT) / STEP));
+
+        double sequentialMs = measure(() -> Functions.integral(f, LEFT, RIGHT, STEP));
+        System.out.printf("последовательно\t%.1f мс%n", sequentialMs);
+
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            double[] result = new double[1];
+            double ms = measure(() -> result[0] = Functions.integral(f, LEFT, RIGHT, STEP, pool));
+            System.out.printf("потоков %d\t%.1f мс\tускорение %.1fx\tинтеграл %.15g%n",
+                    threads, ms, sequentialMs / ms, result[0]);
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Лучшее время из нескольких запусков после прогрева, мс
+     */
+    private static double measure(Runnable run) {
+        for (int i = 0; i < 2; i++) {
+            run.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            run.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best / 1e6;
+    }
+}
@@ -0,0 +1,58 @@
+package benchmarks;
+
+import functions.Function;
+import functions.Functions;
+import functions.basic.Cos;
+import functions.basic.Exp;
+import functions.basic.Log;
+import functions.basic.Sin;
+import functions.integration.Quadrature;
+import functions.integration.QuadratureResult;
+
+/**
+ * Сколько вычислений функции нужно для точности 1e-7 методу трапеций (Functions.integral),
+ * методу Ромберга, адаптивному методу Симпсона и методу Гаусса-Кронрода.
+ * Для метода трапеций шаг уменьшается вдвое, пока погрешность больше допустимой;
+ * приводятся вычисления последнего (достаточного) запуска и всех запусков вместе -
+ * столько стоит подбор шага повторными вызовами integral.
+ * Запуск: java -cp out benchmarks.QuadratureBenchmark
+ */
+public class QuadratureBenchmark {
+
+    private static final double TOLERANCE = 1e-7;
+    private static final int BUDGET = 1_000_000;
+
+    public static void main(String[] args) {
+        System.out.println("Функция\t\t\tТрапеции\tВсе запуски\tРомберг\t\tСимпсон\t\tГаусс-Кронрод");
+        System.out.println("------------------------------------------------------------------------------------------------");
+
+        run("exp на [0, 1]\t", new Exp(), 0, 1);
+        run("ln на [1, 10]\t", new Log(Math.E), 1, 10);
+        run("sin(exp(x)) на [0, 3]", Functions.composition(new Sin(), new Exp()), 0, 3);
+        run("cos(x)^2 * exp(x)", Functions.mult(Functions.power(new Cos(), 2), new Exp()), 0, 5);
+        run("ln(exp(x) + 1)\t", Functions.composition(new Log(Math.E), Functions.shift(new Exp(), 0, 1)), -2, 2);
+    }
+
+    private static void run(String name, Function f, double left, double right) {
+        // Эталон - тот же Гаусс-Кронрод с точностью, близкой к машинной
+        double exact = Quadrature.gaussKronrod(f, left, right, 1e-14, 1e-14, BUDGET).getValue();
+
+        long trapezoidEvaluations = -1;
+        long totalTrapezoidEvaluations = 0;
+        for (double step = (right - left) / 2; step > 1e-9; step /= 2) {
+            long evaluations = Math.round((right - left) / step) + 1;
+            totalTrapezoidEvaluations += evaluations;
+            if (Math.abs(Functions.integral(f, left, right, step) - exact) <= TOLERANCE) {
+                trapezoidEvaluations = evaluations;
+                break;
+            }
+        }
+
+        QuadratureResult romberg = Quadrature.romberg(f, left, right, TOLERANCE, 0, BUDGET);
+        QuadratureResult simpson = Quadrature.adaptiveSimpson(f, left, right, TOLERANCE, 0, BUDGET);
+        QuadratureResult kronrod = Quadrature.gaussKronrod(f, left, right, TOLERANCE, 0, BUDGET);
+        System.out.printf("%s\t%d\t\t%d\t\t%d\t\t%d\t\t%d%n",
+                name, trapezoidEvaluations, totalTrapezoidEvaluations, romberg.getEvaluations(),
+                simpson.getEvaluations(), kronrod.getEvaluations());
+    }
+}
@@ -0,0 +1,93 @@
+package benchmarks;
+
+import functions.Functions;
+import functions.basic.Exp;
+import threads.AsyncResultSink;
+import threads.DiscardResultSink;
+import threads.ResultSink;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Пропускная способность потоков, которые вычисляют дешевый интеграл и выводят результат:
+ * строка собирается конкатенацией и печатается под общей блокировкой (как раньше внутри семафора),
+ * через AsyncResultSink и без вывода (DiscardResultSink).
+ * Вывод идет во временный файл, чтобы не зависеть от скорости терминала.
+ * Запуск: java -cp out benchmarks.ResultSinkBenchmark
+ */
+public class ResultSinkBenchmark {
+
+    private static final int THREADS = 4;
+    private static final int RECORDS_PER_THREAD = 250_000;
+
+    public static void main(String[] args) throws Exception {
+        File file = File.createTempFile("sink", ".txt");
+        file.deleteOnExit();
+
+        System.out.println("Вывод\t\t\t\tТыс. записей/с");
+        System.out.println("----------------------------------------------");
+        for (int round = 0; round < 2; round++) {
+            double locked;
+            try (PrintStream out = new PrintStream(new FileOutputStream(file), false)) {
+                locked = lockedPrintln(out);
+            }
+            double async;
+            try (AsyncResultSink sink = AsyncResultSink.toFile(file.getPath())) {
+                async = run(sink);
+            }
+            double discard = run(DiscardResultSink.INSTANCE);
+            if (round == 1) {
+                System.out.printf("println под блокировкой\t\t%.0f%n", locked);
+                System.out.printf("AsyncResultSink\t\t\t%.0f%n", async);
+                System.out.printf("DiscardResultSink\t\t%.0f%n", discard);
+            }
+        }
+    }
+
+    private static double lockedPrintln(PrintStream out) throws InterruptedException {
+        ReentrantLock lock = new ReentrantLock();
+        return measure(() -> {
+            String name = Thread.currentThread().getName();
+            Exp exp = new Exp();
+            for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                double value = Functions.integral(exp, 0, 1 + i * 1e-6, 0.25);
+                lock.lock();
+                try {
+                    out.println(name + " Result " + "<" + 0.0 + "> " + "<" + (1 + i * 1e-6) + "> "
+                            + "<" + 0.25 + "> " + "<" + value + ">");
+                } finally {
+                    lock.unlock();
+                }
+            }
+        });
+    }
+
+    private static double run(ResultSink sink) throws InterruptedException {
+        return measure(() -> {
+            String name = Thread.currentThread().getName();
+            Exp exp = new Exp();
+            for (int i = 0; i < RECORDS_PER_THREAD; i++) {
+                double value = Functions.integral(exp, 0, 1 + i * 1e-6, 0.25);
+                sink.onResult(name, 0, 1 + i * 1e-6, 0.25, value);
+            }
+        });
+    }
+
+    private static double measure(Runnable body) throws InterruptedException {
+        Thread[] threads = new Thread[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            threads[i] = new Thread(body, "Worker-" + i);
+        }
+        long start = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        return (double) THREADS * RECORDS_PER_THREAD / ((System.nanoTime() - start) / 1e6);
+    }
+}
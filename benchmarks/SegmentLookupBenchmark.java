@@ -0,0 +1,91 @@
+package benchmarks;
+
+import functions.DoubleArrayTabulatedFunction;
+import functions.TabulatedFunction;
+
+import java.util.Random;
+
+/**
+ * Сравнение поиска отрезка в getFunctionValue с прежним линейным просмотром
+ * на таблицах от 10 до 10^7 точек, для равномерной и неравномерной сетки.
+ * Запуск: java -cp out benchmarks.SegmentLookupBenchmark
+ */
+public class SegmentLookupBenchmark {
+
+    // Ограничение на суммарное число шагов линейного просмотра в одном замере
+    private static final long LINEAR_BUDGET = 200_000_000L;
+    private static final int MAX_QUERIES = 1_000_000;
+
+    private static volatile double sink;
+
+    public static void main(String[] args) {
+        System.out.println("Точек\t\tСетка\t\tЛинейно, нс\tПоиск, нс\tУскорение");
+        System.out.println("----------------------------------------------------------------");
+
+        Random random = new Random(42);
+        for (int n = 10; n <= 10_000_000; n *= 10) {
+            run(n, false, random);
+            run(n, true, random);
+        }
+    }
+
+    private static void run(int n, boolean jittered, Random random) {
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        double x = 0;
+        for (int i = 0; i < n; i++) {
+            xs[i] = x;
+            ys[i] = Math.sin(x);
+            // На неравномерной сетке шаг меняется в 10 раз
+            x += jittered ? 0.1 + random.nextDouble() * 0.9 : 1;
+        }
+        TabulatedFunction function = new DoubleArrayTabulatedFunction(xs, ys);
+
+        int queries = (int) Math.max(10, Math.min(MAX_QUERIES, LINEAR_BUDGET / n));
+        double[] probes = new double[queries];
+        for (int i = 0; i < queries; i++) {
+            probes[i] = random.nextDouble() * xs[n - 1];
+        }
+
+        // Прогрев, чтобы сравнивать скомпилированный код
+        for (int round = 0; round < 3; round++) {
+            linear(xs, ys, n, probes);
+            search(function, probes);
+        }
+
+        double linearNs = linear(xs, ys, n, probes);
+        double searchNs = search(function, probes);
+        System.out.printf("%d\t%s\t%.1f\t\t%.1f\t\t%.0fx%n",
+                n, jittered ? "неравномерная" : "равномерная\t", linearNs, searchNs, linearNs / searchNs);
+    }
+
+    /**
+     * Прежний алгоритм ArrayTabulatedFunction.getFunctionValue: просмотр всех отрезков подряд
+     */
+    private static double linear(double[] xs, double[] ys, int n, double[] probes) {
+        long start = System.nanoTime();
+        double acc = 0;
+        for (double x : probes) {
+            for (int i = 0; i < n - 1; i++) {
+                if (x >= xs[i] && x <= xs[i + 1]) {
+                    acc += ys[i] + (ys[i + 1] - ys[i]) * (x - xs[i]) / (xs[i + 1] - xs[i]);
+                    break;
+                }
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = acc;
+        return (double) elapsed / probes.length;
+    }
+
+    private static double search(TabulatedFunction function, double[] probes) {
+        long start = System.nanoTime();
+        double acc = 0;
+        for (double x : probes) {
+            acc += function.getFunctionValue(x);
+        }
+        long elapsed = System.nanoTime() - start;
+        sink = acc;
+        return (double) elapsed / probes.length;
+    }
+}
@@ -0,0 +1,68 @@
+package benchmarks;
+
+import functions.basic.Log;
+import threads.ExecutionMode;
+import threads.IntegrationJob;
+import threads.IntegrationResult;
+import threads.JobExecutor;
+import threads.SplittingScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Время выполнения набора заданий, в начале которого стоят несколько крупных
+ * (по 2*10^7 шагов), а за ними - сотни обычных случайных: пул, где каждое задание - одна задача
+ * (JobExecutor), против SplittingScheduler, который делит крупные задания между потоками.
+ * Выигрыш пропорционален числу ядер: на одном ядре делить работу не с кем.
+ * Запуск: java -cp out benchmarks.SplittingBenchmark
+ */
+public class SplittingBenchmark {
+
+    private static final int LARGE_JOBS = 3;
+    private static final int SMALL_JOBS = 500;
+
+    private static volatile double sink;
+
+    public static void main(String[] args) throws InterruptedException {
+        int threads = Runtime.getRuntime().availableProcessors();
+        List<IntegrationJob> jobs = new ArrayList<>();
+        for (int i = 0; i < LARGE_JOBS; i++) {
+            jobs.add(new IntegrationJob(i, new Log(2 + i), 1, 201, 1e-5));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < SMALL_JOBS; i++) {
+            jobs.add(IntegrationJob.random(LARGE_JOBS + i, random));
+        }
+
+        System.out.println("Потоков: " + threads);
+        System.out.println("Планировщик\t\t\tВремя, мс");
+        System.out.println("----------------------------------------");
+
+        JobExecutor executor = new JobExecutor(ExecutionMode.PLATFORM, threads);
+        SplittingScheduler scheduler = new SplittingScheduler(threads);
+        for (int round = 0; round < 2; round++) {
+            long start = System.nanoTime();
+            consume(executor.runAll(jobs));
+            double executorMs = (System.nanoTime() - start) / 1e6;
+
+            start = System.nanoTime();
+            consume(scheduler.runAll(jobs));
+            double schedulerMs = (System.nanoTime() - start) / 1e6;
+
+            if (round == 1) {
+                System.out.printf("JobExecutor (PLATFORM)\t\t%.1f%n", executorMs);
+                System.out.printf("SplittingScheduler\t\t%.1f%n", schedulerMs);
+            }
+        }
+    }
+
+    private static void consume(List<IntegrationResult> results) {
+        double acc = 0;
+        for (IntegrationResult result : results) {
+            acc += result.getValue();
+        }
+        sink = acc;
+    }
+}
@@ -9,11 +9,15 @@ import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 public class ArrayTabulatedFunction implements TabulatedFunction {
     private FunctionPoint[] massiveOfPoints;
     private int amountOfElements;
 
+    // Индекс площадей отрезков для интегралов за O(log n), null пока не включен
+    private transient PrefixSumTreap areaIndex;
+
     public ArrayTabulatedFunction() {}
 
     /**
@@ -108,26 +112,108 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
      */
     public double getFunctionValue(double x) {
         // Поиск интервала, содержащего x
-        for (int i = 0; i < amountOfElements - 1; i++) {
-            double x1 = massiveOfPoints[i].getX();
-            double x2 = massiveOfPoints[i + 1].getX();
+        int i = findSegment(x);
+        if (i < 0) {
+            return Double.NaN;
+        }
 
-            if (x >= x1 && x <= x2) {
-                // Линейная интерполяция между точками i и i+1
-                double y1 = massiveOfPoints[i].getY();
-                double y2 = massiveOfPoints[i + 1].getY();
+        double x1 = massiveOfPoints[i].getX();
+        double x2 = massiveOfPoints[i + 1].getX();
+        double y1 = massiveOfPoints[i].getY();
+        double y2 = massiveOfPoints[i + 1].getY();
 
-                // Уравнение прямой: y = y1 + (y2 - y1) * (x - x1) / (x2 - x1)
-                return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+        // Уравнение прямой: y = y1 + (y2 - y1) * (x - x1) / (x2 - x1)
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    /**
+     * Пакетное вычисление. Для упорядоченных аргументов отрезок ищется слиянием:
+     * от отрезка предыдущего аргумента делается несколько шагов вправо, и только при большом
+     * разрыве выполняется новый поиск
+     * @param xs аргументы
+     * @param out массив для результатов (может совпадать с xs)
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        boolean ascending = SegmentSearch.isAscending(xs);
+        if (ascending && InterpolationKernel.worthRuns(xs.length, amountOfElements)) {
+            getFunctionValuesByRuns(xs, out);
+            return;
+        }
+        int last = amountOfElements - 1;
+        double left = massiveOfPoints[0].getX();
+        double right = massiveOfPoints[last].getX();
+        int i = 0;
+        for (int k = 0; k < xs.length; k++) {
+            double x = xs[k];
+            if (!(x >= left && x <= right)) {
+                out[k] = Double.NaN;
+                continue;
+            }
+            if (ascending) {
+                int steps = 0;
+                while (i < last - 1 && massiveOfPoints[i + 1].getX() <= x && steps < SegmentSearch.WALK_LIMIT) {
+                    i++;
+                    steps++;
+                }
+                if (i < last - 1 && massiveOfPoints[i + 1].getX() <= x) {
+                    i = findSegment(x);
+                }
+            } else {
+                i = findSegment(x);
             }
+
+            double x1 = massiveOfPoints[i].getX();
+            double x2 = massiveOfPoints[i + 1].getX();
+            double y1 = massiveOfPoints[i].getY();
+            double y2 = massiveOfPoints[i + 1].getY();
+            out[k] = y1 + (y2 - y1) * (x - x1) / (x2 - x1);
         }
+    }
 
-        // Пограничный случай
-        if (x == massiveOfPoints[amountOfElements - 1].getX()) {
-            return massiveOfPoints[amountOfElements - 1].getY();
+    /**
+     * Вычисляет упорядоченный пакет сериями аргументов, попадающих в один отрезок (см. InterpolationKernel)
+     */
+    private void getFunctionValuesByRuns(double[] xs, double[] out) {
+        int last = amountOfElements - 1;
+        double left = massiveOfPoints[0].getX();
+        double right = massiveOfPoints[last].getX();
+        int k = 0;
+        while (k < xs.length && xs[k] < left) {
+            out[k++] = Double.NaN;
+        }
+        int i = 0;
+        while (k < xs.length && xs[k] <= right) {
+            double x = xs[k];
+            int steps = 0;
+            while (i < last - 1 && massiveOfPoints[i + 1].getX() <= x && steps < SegmentSearch.WALK_LIMIT) {
+                i++;
+                steps++;
+            }
+            if (i < last - 1 && massiveOfPoints[i + 1].getX() <= x) {
+                i = findSegment(x);
+            }
+            FunctionPoint p1 = massiveOfPoints[i];
+            FunctionPoint p2 = massiveOfPoints[i + 1];
+            int end = InterpolationKernel.runEnd(xs, k, p2.getX(), i == last - 1);
+            InterpolationKernel.lerp(xs, k, end, p1.getX(), p2.getX(), p1.getY(), p2.getY(), out);
+            k = end;
         }
+        while (k < xs.length) {
+            out[k++] = Double.NaN;
+        }
+    }
 
-        return Double.NaN;
+    /**
+     * Находит отрезок [x(i), x(i+1)], содержащий x (см. SegmentSearch)
+     * @param x искомая координата
+     * @return наибольший i из [0, amountOfElements-2] с x(i) <= x или -1, если x вне области определения
+     */
+    private int findSegment(double x) {
+        return SegmentSearch.findSegment(massiveOfPoints, amountOfElements, x);
     }
 
     /**
@@ -162,6 +248,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
                 (index < amountOfElements - 1 && point.getX() >= massiveOfPoints[index + 1].getX()))
             throw new InappropriateFunctionPointException();
         massiveOfPoints[index] = new FunctionPoint(point.getX(), point.getY());
+        updateAreaIndex(index);
     }
 
     /**
@@ -190,6 +277,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             throw new InappropriateFunctionPointException();
         }
         massiveOfPoints[index] = new FunctionPoint(x, massiveOfPoints[index].getY());
+        updateAreaIndex(index);
     }
 
     /**
@@ -213,6 +301,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             throw new FunctionPointIndexOutOfBoundsException();
         }
         massiveOfPoints[index] = new FunctionPoint(massiveOfPoints[index].getX(), y);
+        updateAreaIndex(index);
     }
 
     /**
@@ -229,11 +318,91 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         }
 
         // Сдвигаем все элементы после удаляемого влево
-        for (int i = index; i < amountOfElements - 1; i++) {
-            massiveOfPoints[i] = massiveOfPoints[i + 1];
-        }
+        System.arraycopy(massiveOfPoints, index + 1, massiveOfPoints, index, amountOfElements - index - 1);
         massiveOfPoints[amountOfElements - 1] = null;
         amountOfElements--;
+
+        // Удаление крайней точки убирает крайний отрезок, удаление внутренней сливает два отрезка в один
+        if (areaIndex != null) {
+            if (index == amountOfElements) {
+                areaIndex.remove(index - 1);
+            } else {
+                areaIndex.remove(index);
+                if (index > 0) areaIndex.set(index - 1, segmentArea(index - 1));
+            }
+        }
+    }
+
+    /**
+     * Удаляет точки с индексами [from, to) одним сдвигом хвоста массива
+     * @param from индекс первой удаляемой точки
+     * @param to индекс точки, следующей за последней удаляемой
+     */
+    @Override
+    public void deleteRange(int from, int to)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (from < 0 || to > amountOfElements || from > to) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (amountOfElements - (to - from) < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+
+        System.arraycopy(massiveOfPoints, to, massiveOfPoints, from, amountOfElements - to);
+        int oldCount = amountOfElements;
+        int newCount = amountOfElements - (to - from);
+        Arrays.fill(massiveOfPoints, newCount, amountOfElements, null);
+        amountOfElements = newCount;
+
+        // Отрезки, касающиеся удаленных точек, убираются, а внутри таблицы их заменяет один
+        if (areaIndex != null && from < to) {
+            if (from == 0) {
+                areaIndex.removeRange(0, to);
+            } else if (to == oldCount) {
+                areaIndex.removeRange(from - 1, oldCount - 1);
+            } else {
+                areaIndex.removeRange(from, to);
+                areaIndex.set(from - 1, segmentArea(from - 1));
+            }
+        }
+    }
+
+    /**
+     * Удаляет точки, удовлетворяющие условию, уплотняя массив за один проход
+     * @param filter условие удаления (получает копии точек)
+     * @return true, если была удалена хотя бы одна точка
+     */
+    @Override
+    public boolean removeIf(Predicate<? super FunctionPoint> filter) throws IllegalStateException {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+        boolean[] removed = new boolean[amountOfElements];
+        int removedCount = 0;
+        for (int i = 0; i < amountOfElements; i++) {
+            if (filter.test(new FunctionPoint(massiveOfPoints[i]))) {
+                removed[i] = true;
+                removedCount++;
+            }
+        }
+        if (amountOfElements - removedCount < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+        if (removedCount == 0) {
+            return false;
+        }
+
+        int k = 0;
+        for (int i = 0; i < amountOfElements; i++) {
+            if (!removed[i]) {
+                massiveOfPoints[k++] = massiveOfPoints[i];
+            }
+        }
+        Arrays.fill(massiveOfPoints, k, amountOfElements, null);
+        amountOfElements = k;
+        // Удаленные точки произвольно разбросаны: индекс строится заново за тот же проход O(n)
+        rebuildAreaIndex();
+        return true;
     }
 
     /**
@@ -246,35 +415,202 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
             throw new IllegalArgumentException("Point cannot be null");
         }
 
-        // Увеличиваем массив при необходимости
-        if (amountOfElements == massiveOfPoints.length) {
-            FunctionPoint[] newPoints = new FunctionPoint[massiveOfPoints.length + 1];
-            for (int i = 0; i < amountOfElements; i++) {
-                newPoints[i] = massiveOfPoints[i];
-            }
-            massiveOfPoints = newPoints;
-        }
+        double x = point.getX();
 
         // Ищем место для вставки
-        int pos = 0;
-        while (pos < amountOfElements && massiveOfPoints[pos].getX() < point.getX()) {
-            pos++;
-        }
+        int pos = insertPosition(x);
 
         // Проверка на корректность вставки
-        if ((pos > 0 && Math.abs(massiveOfPoints[pos-1].getX() - point.getX()) < 1e-10) ||
-                (pos < amountOfElements && Math.abs(massiveOfPoints[pos].getX() - point.getX()) < 1e-10)) {
+        if ((pos > 0 && Math.abs(massiveOfPoints[pos-1].getX() - x) < 1e-10) ||
+                (pos < amountOfElements && Math.abs(massiveOfPoints[pos].getX() - x) < 1e-10)) {
             throw new InappropriateFunctionPointException();
         }
 
+        // Увеличиваем массив при необходимости
+        ensureCapacity(amountOfElements + 1);
+
         // Сдвигаем элементы вправо
-        for (int i = amountOfElements; i > pos; i--) {
-            massiveOfPoints[i] = massiveOfPoints[i - 1];
-        }
+        System.arraycopy(massiveOfPoints, pos, massiveOfPoints, pos + 1, amountOfElements - pos);
 
         // Вставляем новую точку
-        massiveOfPoints[pos] = new FunctionPoint(point.getX(), point.getY());
+        massiveOfPoints[pos] = new FunctionPoint(x, point.getY());
         amountOfElements++;
+
+        insertIntoAreaIndex(pos, amountOfElements);
+    }
+
+    /**
+     * Добавляет пакет точек одним слиянием: O(n + m log m) вместо m сдвигов массива
+     * @param xs координаты X новых точек
+     * @param ys значения функции в новых точках
+     */
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        batch.checkDisjoint(i -> massiveOfPoints[i].getX(), amountOfElements);
+
+        int m = batch.length;
+        ensureCapacity(amountOfElements + m);
+        int oldCount = amountOfElements;
+        // Небольшой пакет вставляется в индекс поточечно, крупный дешевле построить заново
+        int[] positions = areaIndex != null && m < (oldCount >> 4) ? new int[m] : null;
+
+        // Слияние с конца, чтобы не затирать еще не перенесенные точки
+        int i = amountOfElements - 1;
+        int j = m - 1;
+        for (int k = amountOfElements + m - 1; j >= 0; k--) {
+            if (i >= 0 && massiveOfPoints[i].getX() > batch.xs[j]) {
+                massiveOfPoints[k] = massiveOfPoints[i--];
+            } else {
+                massiveOfPoints[k] = new FunctionPoint(batch.xs[j], batch.ys[j]);
+                if (positions != null) positions[j] = k;
+                j--;
+            }
+        }
+        amountOfElements += m;
+
+        if (positions == null) {
+            rebuildAreaIndex();
+            return;
+        }
+        // В порядке возрастания позиций каждая новая точка стоит в индексе на своем итоговом месте:
+        // все еще не вставленные - правее нее
+        for (j = 0; j < m; j++) {
+            insertIntoAreaIndex(positions[j], oldCount + j + 1);
+        }
+    }
+
+    /**
+     * Включает индекс площадей отрезков (декартово дерево по позиции отрезка), после чего
+     * integral(leftX, rightX) для любых границ стоит два бинарных поиска и O(log n) на префиксные суммы.
+     * Изменение, добавление и удаление точки в любом месте обновляют индекс за O(log n):
+     * пересчитываются только площади отрезков, прилегающих к точке.
+     * deleteRange и небольшие addPoints обновляют его так же, а removeIf и крупные addPoints
+     * строят индекс заново за O(n)
+     */
+    public void enableAreaIndex() {
+        if (areaIndex == null) {
+            areaIndex = buildAreaIndex();
+        }
+    }
+
+    /**
+     * Отключает индекс площадей, освобождая его память
+     */
+    public void disableAreaIndex() {
+        areaIndex = null;
+    }
+
+    /**
+     * @return true, если индекс площадей включен
+     */
+    public boolean hasAreaIndex() {
+        return areaIndex != null;
+    }
+
+    /**
+     * Точный интеграл функции на [leftX, rightX]: с индексом площадей за O(log n),
+     * без него - суммированием отрезков, как Functions.integral
+     * @param leftX левая граница
+     * @param rightX правая граница
+     * @return значение интеграла
+     */
+    public double integral(double leftX, double rightX) {
+        if (areaIndex == null) {
+            return Functions.integral(this, leftX, rightX);
+        }
+        if (getLeftDomainBorder() > leftX) throw new IllegalArgumentException("Incorrect left border!");
+        if (getRightDomainBorder() < rightX) throw new IllegalArgumentException("Incorrect right domain border!");
+        if (leftX > rightX) throw new IllegalArgumentException("Incorrect function!");
+
+        if (leftX == rightX)
+            return 0;
+
+        int first = findSegment(leftX);
+        int last = findSegment(rightX);
+        if (first == last) {
+            return partialArea(first, leftX, rightX);
+        }
+        // Хвост первого отрезка, целые отрезки между ними и начало последнего
+        return partialArea(first, leftX, massiveOfPoints[first + 1].getX())
+                + (areaIndex.prefixSum(last) - areaIndex.prefixSum(first + 1))
+                + partialArea(last, massiveOfPoints[last].getX(), rightX);
+    }
+
+    /**
+     * Площадь трапеции под отрезком i между a и b (a, b внутри отрезка)
+     */
+    private double partialArea(int i, double a, double b) {
+        double x1 = massiveOfPoints[i].getX();
+        double x2 = massiveOfPoints[i + 1].getX();
+        double y1 = massiveOfPoints[i].getY();
+        double y2 = massiveOfPoints[i + 1].getY();
+        double fa = a == x1 ? y1 : y1 + (y2 - y1) * (a - x1) / (x2 - x1);
+        double fb = b == x2 ? y2 : y1 + (y2 - y1) * (b - x1) / (x2 - x1);
+        return (fa + fb) * (b - a) / 2.0;
+    }
+
+    private double segmentArea(int i) {
+        return partialArea(i, massiveOfPoints[i].getX(), massiveOfPoints[i + 1].getX());
+    }
+
+    private PrefixSumTreap buildAreaIndex() {
+        double[] areas = new double[amountOfElements - 1];
+        for (int i = 0; i < areas.length; i++) {
+            areas[i] = segmentArea(i);
+        }
+        return new PrefixSumTreap(areas, areas.length);
+    }
+
+    private void rebuildAreaIndex() {
+        if (areaIndex != null) {
+            areaIndex = buildAreaIndex();
+        }
+    }
+
+    /**
+     * Учитывает в индексе точку, вставленную на позицию pos
+     * @param count количество точек, которое индекс должен описывать после вставки
+     */
+    private void insertIntoAreaIndex(int pos, int count) {
+        if (areaIndex == null) return;
+        if (pos == count - 1) {
+            // Точка в конце добавляет последний отрезок
+            areaIndex.insert(pos - 1, segmentArea(pos - 1));
+            return;
+        }
+        // Иначе появляется отрезок, начинающийся в точке, а отрезок слева (если есть) укорачивается
+        areaIndex.insert(pos, segmentArea(pos));
+        if (pos > 0) areaIndex.set(pos - 1, segmentArea(pos - 1));
+    }
+
+    /**
+     * Обновляет площади двух отрезков, прилегающих к измененной точке
+     */
+    private void updateAreaIndex(int index) {
+        if (areaIndex == null) return;
+        if (index > 0) areaIndex.set(index - 1, segmentArea(index - 1));
+        if (index < amountOfElements - 1) areaIndex.set(index, segmentArea(index));
+    }
+
+    /**
+     * Находит позицию вставки координаты x с сохранением упорядоченности
+     */
+    private int insertPosition(double x) {
+        if (x < massiveOfPoints[0].getX()) return 0;
+        if (x > massiveOfPoints[amountOfElements - 1].getX()) return amountOfElements;
+        return findSegment(x) + 1;
+    }
+
+    /**
+     * Увеличивает массив в полтора раза (но не меньше чем до required),
+     * чтобы серия вставок копировала его O(log n) раз, а не при каждой вставке
+     */
+    private void ensureCapacity(int required) {
+        if (required > massiveOfPoints.length) {
+            int capacity = Math.max(required, massiveOfPoints.length + (massiveOfPoints.length >> 1));
+            massiveOfPoints = Arrays.copyOf(massiveOfPoints, capacity);
+        }
     }
 
 
@@ -308,6 +644,7 @@ public class ArrayTabulatedFunction implements TabulatedFunction {
         for (int i = 0; i < amountOfElements; i++) {
             massiveOfPoints[i] = new FunctionPoint(xValues[i], yValues[i]);
         }
+        rebuildAreaIndex();
     }
 
     @Override
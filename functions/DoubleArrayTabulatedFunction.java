@@ -0,0 +1,467 @@
+package functions;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Табулированная функция, хранящая координаты точек в двух параллельных массивах double.
+ * В отличие от ArrayTabulatedFunction не создает объект FunctionPoint на каждую точку:
+ * чтение и запись координат не выделяют память, а точки лежат в памяти подряд.
+ */
+public class DoubleArrayTabulatedFunction implements TabulatedFunction {
+    private double[] xValues;
+    private double[] yValues;
+    private int amountOfElements;
+
+    public DoubleArrayTabulatedFunction() {}
+
+    /**
+     * Создает табличную функцию с равномерно распределенными точками
+     * @param leftX левая граница области определения
+     * @param rightX правая граница области определения
+     * @param pointsCount количество точек
+     */
+    public DoubleArrayTabulatedFunction(double leftX, double rightX, int pointsCount)
+            throws IllegalArgumentException {
+        if (leftX >= rightX)
+            throw new IllegalArgumentException("Left border must be less than right border!");
+        if (pointsCount < 2)
+            throw new IllegalArgumentException("Count of points must be at least 2!");
+
+        this.amountOfElements = pointsCount;
+        this.xValues = new double[pointsCount];
+        this.yValues = new double[pointsCount];
+
+        double distance = (rightX - leftX) / (amountOfElements - 1);
+        for (int i = 0; i < amountOfElements; i++) {
+            this.xValues[i] = leftX + i * distance;
+        }
+    }
+
+    /**
+     * Создает табличную функцию с равномерно распределенными точками и заданными значениями функции
+     * @param leftX левая граница области определения
+     * @param rightX правая граница области определения
+     * @param values массив значений функции в точках
+     */
+    public DoubleArrayTabulatedFunction(double leftX, double rightX, double[] values)
+            throws IllegalArgumentException {
+        if (leftX >= rightX)
+            throw new IllegalArgumentException("Left border must be less than right border!");
+        if (values.length < 2)
+            throw new IllegalArgumentException("Count of points must be at least 2!");
+
+        this.amountOfElements = values.length;
+        this.xValues = new double[amountOfElements];
+        this.yValues = Arrays.copyOf(values, amountOfElements);
+
+        double distance = (rightX - leftX) / (amountOfElements - 1);
+        for (int i = 0; i < amountOfElements; i++) {
+            this.xValues[i] = leftX + i * distance;
+        }
+    }
+
+    /**
+     * Создает табличную функцию по массиву точек
+     * @param massiveOfPoints массив точек
+     */
+    public DoubleArrayTabulatedFunction(FunctionPoint[] massiveOfPoints) throws IllegalArgumentException {
+        this.amountOfElements = massiveOfPoints.length;
+        if (amountOfElements < 2)
+            throw new IllegalArgumentException("Massive length must be greater than 2!");
+
+        for (int i = 1; i < amountOfElements; i++) {
+            if (massiveOfPoints[i].getX() < massiveOfPoints[i-1].getX()) {
+                throw new IllegalArgumentException("IllegalArgumentException");
+            }
+        }
+
+        this.xValues = new double[amountOfElements];
+        this.yValues = new double[amountOfElements];
+        for (int i = 0; i < amountOfElements; i++) {
+            this.xValues[i] = massiveOfPoints[i].getX();
+            this.yValues[i] = massiveOfPoints[i].getY();
+        }
+    }
+
+    /**
+     * Создает табличную функцию по массивам координат (массивы копируются)
+     * @param xValues координаты X в порядке возрастания
+     * @param yValues значения функции
+     */
+    public DoubleArrayTabulatedFunction(double[] xValues, double[] yValues) throws IllegalArgumentException {
+        if (xValues.length != yValues.length)
+            throw new IllegalArgumentException("Arrays of X and Y must have the same length!");
+        this.amountOfElements = xValues.length;
+        if (amountOfElements < 2)
+            throw new IllegalArgumentException("Massive length must be greater than 2!");
+
+        for (int i = 1; i < amountOfElements; i++) {
+            if (xValues[i] < xValues[i-1]) {
+                throw new IllegalArgumentException("IllegalArgumentException");
+            }
+        }
+
+        this.xValues = Arrays.copyOf(xValues, amountOfElements);
+        this.yValues = Arrays.copyOf(yValues, amountOfElements);
+    }
+
+    public double getLeftDomainBorder() {
+        return xValues[0];
+    }
+
+    public double getRightDomainBorder() {
+        return xValues[amountOfElements - 1];
+    }
+
+    /**
+     * Вычисляет значение функции в заданной точке с помощью линейной интерполяции
+     * @param x координата, в которой вычисляется значение функции
+     * @return значение функции в точке x или Double.NaN, если x вне области определения
+     */
+    public double getFunctionValue(double x) {
+        int i = SegmentSearch.findSegment(xValues, amountOfElements, x);
+        if (i < 0) {
+            return Double.NaN;
+        }
+
+        double x1 = xValues[i];
+        double x2 = xValues[i + 1];
+        double y1 = yValues[i];
+        double y2 = yValues[i + 1];
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    /**
+     * Пакетное вычисление: для упорядоченных аргументов отрезки ищутся одним проходом слияния
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        SegmentSearch.interpolate(xValues, yValues, amountOfElements, xs, out);
+    }
+
+    public int getPointsCount() {
+        return amountOfElements;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return new FunctionPoint(xValues[index], yValues[index]);
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (index < 0 || index >= amountOfElements || point == null)
+            throw new FunctionPointIndexOutOfBoundsException();
+        if ((index > 0 && point.getX() <= xValues[index - 1]) ||
+                (index < amountOfElements - 1 && point.getX() >= xValues[index + 1]))
+            throw new InappropriateFunctionPointException();
+        xValues[index] = point.getX();
+        yValues[index] = point.getY();
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return xValues[index];
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (index < 0 || index >= amountOfElements) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if ((index > 0 && x <= xValues[index - 1]) ||
+                (index < amountOfElements - 1 && x >= xValues[index + 1])) {
+            throw new InappropriateFunctionPointException();
+        }
+        xValues[index] = x;
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return yValues[index];
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= amountOfElements) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        yValues[index] = y;
+    }
+
+    public void deletePoint(int index)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (index < 0 || index >= amountOfElements) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (amountOfElements < 3) {
+            throw new IllegalStateException("Cannot delete point: minimum 3 points required");
+        }
+
+        int tail = amountOfElements - index - 1;
+        System.arraycopy(xValues, index + 1, xValues, index, tail);
+        System.arraycopy(yValues, index + 1, yValues, index, tail);
+        amountOfElements--;
+    }
+
+    /**
+     * Удаляет точки с индексами [from, to) одним сдвигом хвоста массивов
+     * @param from индекс первой удаляемой точки
+     * @param to индекс точки, следующей за последней удаляемой
+     */
+    @Override
+    public void deleteRange(int from, int to)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (from < 0 || to > amountOfElements || from > to) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (amountOfElements - (to - from) < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+
+        int tail = amountOfElements - to;
+        System.arraycopy(xValues, to, xValues, from, tail);
+        System.arraycopy(yValues, to, yValues, from, tail);
+        amountOfElements -= to - from;
+    }
+
+    /**
+     * Удаляет точки, удовлетворяющие условию, уплотняя массивы за один проход
+     * @param filter условие удаления (получает копии точек)
+     * @return true, если была удалена хотя бы одна точка
+     */
+    @Override
+    public boolean removeIf(Predicate<? super FunctionPoint> filter) throws IllegalStateException {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+        boolean[] removed = new boolean[amountOfElements];
+        int removedCount = 0;
+        for (int i = 0; i < amountOfElements; i++) {
+            if (filter.test(new FunctionPoint(xValues[i], yValues[i]))) {
+                removed[i] = true;
+                removedCount++;
+            }
+        }
+        if (amountOfElements - removedCount < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+        if (removedCount == 0) {
+            return false;
+        }
+        compact(removed);
+        return true;
+    }
+
+    /**
+     * Оставляет только точки, не отмеченные в removed, сохраняя их порядок
+     * @param removed отметки удаляемых точек, по одной на каждую точку
+     */
+    void compact(boolean[] removed) {
+        int k = 0;
+        for (int i = 0; i < amountOfElements; i++) {
+            if (!removed[i]) {
+                xValues[k] = xValues[i];
+                yValues[k] = yValues[i];
+                k++;
+            }
+        }
+        amountOfElements = k;
+    }
+
+    public void addPoint(FunctionPoint point)
+            throws InappropriateFunctionPointException, IllegalArgumentException {
+        if (point == null) {
+            throw new IllegalArgumentException("Point cannot be null");
+        }
+        double x = point.getX();
+
+        // Ищем место для вставки
+        int pos = insertPosition(x);
+
+        // Проверка на корректность вставки
+        if ((pos > 0 && Math.abs(xValues[pos - 1] - x) < 1e-10) ||
+                (pos < amountOfElements && Math.abs(xValues[pos] - x) < 1e-10)) {
+            throw new InappropriateFunctionPointException();
+        }
+
+        ensureCapacity(amountOfElements + 1);
+
+        int tail = amountOfElements - pos;
+        System.arraycopy(xValues, pos, xValues, pos + 1, tail);
+        System.arraycopy(yValues, pos, yValues, pos + 1, tail);
+        xValues[pos] = x;
+        yValues[pos] = point.getY();
+        amountOfElements++;
+    }
+
+    /**
+     * Добавляет пакет точек одним слиянием с конца массивов
+     * @param xs координаты X новых точек
+     * @param ys значения функции в новых точках
+     */
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        batch.checkDisjoint(i -> xValues[i], amountOfElements);
+
+        int m = batch.length;
+        ensureCapacity(amountOfElements + m);
+
+        int i = amountOfElements - 1;
+        int j = m - 1;
+        for (int k = amountOfElements + m - 1; j >= 0; k--) {
+            if (i >= 0 && xValues[i] > batch.xs[j]) {
+                xValues[k] = xValues[i];
+                yValues[k] = yValues[i];
+                i--;
+            } else {
+                xValues[k] = batch.xs[j];
+                yValues[k] = batch.ys[j];
+                j--;
+            }
+        }
+        amountOfElements += m;
+    }
+
+    /**
+     * Находит позицию вставки координаты x с сохранением упорядоченности
+     */
+    private int insertPosition(double x) {
+        if (x < xValues[0]) return 0;
+        if (x > xValues[amountOfElements - 1]) return amountOfElements;
+        return SegmentSearch.findSegment(xValues, amountOfElements, x) + 1;
+    }
+
+    /**
+     * Увеличивает массивы в полтора раза (но не меньше чем до required),
+     * чтобы серия вставок не копировала их каждый раз
+     */
+    private void ensureCapacity(int required) {
+        if (required > xValues.length) {
+            int capacity = Math.max(required, xValues.length + (xValues.length >> 1));
+            xValues = Arrays.copyOf(xValues, capacity);
+            yValues = Arrays.copyOf(yValues, capacity);
+        }
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        // Формат совпадает с ArrayTabulatedFunction: количество точек и два массива координат
+        out.writeInt(amountOfElements);
+        out.writeObject(Arrays.copyOf(xValues, amountOfElements));
+        out.writeObject(Arrays.copyOf(yValues, amountOfElements));
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        amountOfElements = in.readInt();
+        xValues = (double[]) in.readObject();
+        yValues = (double[]) in.readObject();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < amountOfElements; i++) {
+            sb.append("(").append(xValues[i]).append("; ").append(yValues[i]).append(")");
+            if (i < amountOfElements - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || !(obj instanceof TabulatedFunction)) return false;
+
+        TabulatedFunction other = (TabulatedFunction) obj;
+        if (this.amountOfElements != other.getPointsCount()) return false;
+
+        // Сравнение по тем же правилам, что и FunctionPoint.equals
+        for (int i = 0; i < amountOfElements; i++) {
+            if (Double.compare(xValues[i], other.getPointX(i)) != 0
+                    || Double.compare(yValues[i], other.getPointY(i)) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // Совпадает с хэшем ArrayTabulatedFunction с теми же точками, так как equals между ними симметричен
+        int hash = 17;
+        for (int i = 0; i < amountOfElements; i++) {
+            hash = 31 * hash + (Double.hashCode(xValues[i]) ^ Double.hashCode(yValues[i]));
+        }
+        return hash;
+    }
+
+    @Override
+    public Object clone() {
+        DoubleArrayTabulatedFunction copy = new DoubleArrayTabulatedFunction();
+        copy.amountOfElements = amountOfElements;
+        copy.xValues = Arrays.copyOf(xValues, amountOfElements);
+        copy.yValues = Arrays.copyOf(yValues, amountOfElements);
+        return copy;
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return new Iterator<FunctionPoint>() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return index < amountOfElements;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("NoSuchElement!");
+                }
+                FunctionPoint p = new FunctionPoint(xValues[index], yValues[index]);
+                index++;
+                return p;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("You cannot do remove operation!");
+            }
+        };
+    }
+
+    public static class DoubleArrayTabulatedFunctionFactory implements TabulatedFunctionFactory {
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) throws IllegalArgumentException {
+            return new DoubleArrayTabulatedFunction(leftX, rightX, pointsCount);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values) throws IllegalArgumentException {
+            return new DoubleArrayTabulatedFunction(leftX, rightX, values);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(FunctionPoint[] points) throws IllegalArgumentException {
+            return new DoubleArrayTabulatedFunction(points);
+        }
+    }
+}
@@ -19,4 +19,29 @@ public interface Function {
      * @return значение функции в точке x или Double.NaN, если x вне области определения
      */
     double getFunctionValue(double x);
+
+    /**
+     * Вычисляет значения функции сразу для массива аргументов.
+     * Массив out может совпадать с массивом xs, тогда значения записываются поверх аргументов
+     * @param xs аргументы
+     * @param out массив для результатов, не короче xs
+     */
+    default void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = getFunctionValue(xs[i]);
+        }
+    }
+
+    /**
+     * Неизменна ли функция: ее значения, equals и hashCode не меняются со временем.
+     * Только такие функции можно использовать в ключах кэша интегралов (IntegralCache)
+     * @return false по умолчанию; аналитические функции возвращают true,
+     * мета-функции - true, если неизменны все их составляющие
+     */
+    default boolean isImmutable() {
+        return false;
+    }
 }
@@ -2,6 +2,9 @@ package functions;
 
 import functions.meta.*;
 
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
 public class Functions {
 
     /**
@@ -80,29 +83,214 @@ public class Functions {
      * @return значение интеграла
      */
     public static double integral(Function f, double leftX, double rightX, double step) {
-        if (f.getLeftDomainBorder() > leftX) throw new IllegalArgumentException("Incorrect left border!");
-        if (f.getRightDomainBorder() < rightX) throw new IllegalArgumentException("Incorrect right domain border!");
-        if (leftX > rightX) throw new IllegalArgumentException("Incorrect function!");
-        if (step <= 0) throw new IllegalArgumentException("Step must be greater than 0!");
+        checkIntegralArguments(f, leftX, rightX, step);
 
         if (leftX == rightX)
             return 0;
 
+        // Для табулированной функции интеграл считается точно, шаг не нужен
+        if (f instanceof TabulatedFunction)
+            return integral((TabulatedFunction) f, leftX, rightX);
+
         double integralValue = 0;
         double currentX = leftX;
+        double f1 = f.getFunctionValue(currentX);
 
         while(currentX < rightX) {
             double nextX = Math.min(currentX + step, rightX); // Отлавливаем промежуток последнего шага, чтобы не вылезти за границы
             double currentStep = nextX - currentX; // Текущий шаг
 
-            double f1 = f.getFunctionValue(currentX);
             double f2 = f.getFunctionValue(nextX);
             integralValue += (f1 + f2) * currentStep / 2.0; // Вычисление интеграла при помощи площадей трапеции
 
+            f1 = f2; // Правый конец отрезка - левый конец следующего, повторно не вычисляем
             currentX = nextX;
         }
 
         return integralValue;
 
     }
+
+    /**
+     * Параллельное вычисление интеграла методом трапеций.
+     * Узлы x(k) = leftX + k * step (последний узел - rightX) делятся на блоки по INTEGRAL_CHUNK узлов,
+     * каждый блок вычисляется одним пакетом (Function.getFunctionValues), и каждый узел - ровно один раз:
+     * сумма трапеций переписана как сумма f(x(k)) * (x(k+1) - x(k-1)) / 2.
+     * Разбиение на блоки и порядок сложения частичных сумм не зависят от числа потоков,
+     * поэтому результат одинаков для любого пула. От последовательного integral результат может
+     * отличаться в последних разрядах: там узлы накапливаются сложением, а суммы складываются по порядку.
+     * Функция должна допускать одновременное вычисление из нескольких потоков
+     * @param f переданная функция
+     * @param leftX левая граница
+     * @param rightX правая граница
+     * @param step шаг
+     * @param pool пул, в котором выполняется вычисление
+     * @return значение интеграла
+     */
+    public static double integral(Function f, double leftX, double rightX, double step, ForkJoinPool pool) {
+        checkIntegralArguments(f, leftX, rightX, step);
+        if (pool == null) throw new IllegalArgumentException("Pool cannot be null!");
+
+        if (leftX == rightX)
+            return 0;
+
+        if (f instanceof TabulatedFunction)
+            return integral((TabulatedFunction) f, leftX, rightX);
+
+        long segments = segmentsCount(leftX, rightX, step);
+        long chunks = (segments + INTEGRAL_CHUNK) / INTEGRAL_CHUNK; // узлов segments + 1
+        return pool.invoke(new IntegralTask(f, leftX, rightX, step, segments, 0, chunks));
+    }
+
+    /**
+     * Точный интеграл табулированной функции: сумма площадей трапеций под ее отрезками,
+     * крайние отрезки обрезаются по leftX и rightX.
+     * Первый отрезок находится бинарным поиском, поэтому время O(log n + k), где k - число
+     * задетых отрезков (для реализаций с доступом по индексу за O(1)).
+     * Для ArrayTabulatedFunction с включенным индексом площадей - O(log n)
+     * @param f табулированная функция
+     * @param leftX левая граница
+     * @param rightX правая граница
+     * @return значение интеграла
+     */
+    public static double integral(TabulatedFunction f, double leftX, double rightX) {
+        if (f.getLeftDomainBorder() > leftX) throw new IllegalArgumentException("Incorrect left border!");
+        if (f.getRightDomainBorder() < rightX) throw new IllegalArgumentException("Incorrect right domain border!");
+        if (leftX > rightX) throw new IllegalArgumentException("Incorrect function!");
+
+        if (leftX == rightX)
+            return 0;
+
+        // С индексом площадей интеграл считается без обхода отрезков
+        if (f instanceof ArrayTabulatedFunction && ((ArrayTabulatedFunction) f).hasAreaIndex())
+            return ((ArrayTabulatedFunction) f).integral(leftX, rightX);
+
+        int last = f.getPointsCount() - 1;
+        int i = floorSegment(f, leftX);
+
+        double x1 = f.getPointX(i);
+        double y1 = f.getPointY(i);
+        double integralValue = 0;
+        while (i < last && x1 < rightX) {
+            double x2 = f.getPointX(i + 1);
+            double y2 = f.getPointY(i + 1);
+
+            // Обрезаем отрезок по границам интегрирования
+            double a = Math.max(leftX, x1);
+            double b = Math.min(rightX, x2);
+            double fa = a == x1 ? y1 : y1 + (y2 - y1) * (a - x1) / (x2 - x1);
+            double fb = b == x2 ? y2 : y1 + (y2 - y1) * (b - x1) / (x2 - x1);
+            integralValue += (fa + fb) * (b - a) / 2.0;
+
+            x1 = x2;
+            y1 = y2;
+            i++;
+        }
+        return integralValue;
+    }
+
+    /**
+     * Бинарный поиск отрезка табулированной функции
+     * @return наибольший i из [0, n-2] с x(i) <= x
+     */
+    private static int floorSegment(TabulatedFunction f, double x) {
+        int lo = 0;
+        int hi = f.getPointsCount() - 1;
+        if (x >= f.getPointX(hi - 1)) {
+            return hi - 1;
+        }
+        // Инвариант: x(lo) <= x < x(hi)
+        while (hi - lo > 1) {
+            int mid = (lo + hi) >>> 1;
+            if (f.getPointX(mid) <= x) lo = mid;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * Количество узлов в одном блоке параллельного интегрирования
+     */
+    private static final int INTEGRAL_CHUNK = 4096;
+
+    private static void checkIntegralArguments(Function f, double leftX, double rightX, double step) {
+        if (f.getLeftDomainBorder() > leftX) throw new IllegalArgumentException("Incorrect left border!");
+        if (f.getRightDomainBorder() < rightX) throw new IllegalArgumentException("Incorrect right domain border!");
+        if (leftX > rightX) throw new IllegalArgumentException("Incorrect function!");
+        if (step <= 0) throw new IllegalArgumentException("Step must be greater than 0!");
+    }
+
+    /**
+     * Количество отрезков: наименьшее n, при котором leftX + n * step >= rightX
+     */
+    private static long segmentsCount(double leftX, double rightX, double step) {
+        double estimate = Math.ceil((rightX - leftX) / step);
+        if (estimate >= Long.MAX_VALUE / 2) throw new IllegalArgumentException("Step is too small!");
+        long n = Math.max(1, (long) estimate);
+        // Поправка на ошибку округления при делении
+        while (n > 1 && leftX + (n - 1) * step >= rightX) n--;
+        while (leftX + n * step < rightX) n++;
+        return n;
+    }
+
+    /**
+     * Сумма f(x(k)) * w(k) по узлам блоков [fromChunk, toChunk).
+     * Диапазон делится пополам, пока не останется один блок; суммы складываются в порядке слева направо
+     */
+    private static final class IntegralTask extends RecursiveTask<Double> {
+        private final Function f;
+        private final double leftX;
+        private final double rightX;
+        private final double step;
+        private final long segments;
+        private final long fromChunk;
+        private final long toChunk;
+
+        IntegralTask(Function f, double leftX, double rightX, double step, long segments, long fromChunk, long toChunk) {
+            this.f = f;
+            this.leftX = leftX;
+            this.rightX = rightX;
+            this.step = step;
+            this.segments = segments;
+            this.fromChunk = fromChunk;
+            this.toChunk = toChunk;
+        }
+
+        @Override
+        protected Double compute() {
+            if (toChunk - fromChunk == 1) {
+                return chunkSum();
+            }
+            long middle = (fromChunk + toChunk) >>> 1;
+            IntegralTask left = new IntegralTask(f, leftX, rightX, step, segments, fromChunk, middle);
+            IntegralTask right = new IntegralTask(f, leftX, rightX, step, segments, middle, toChunk);
+            left.fork();
+            double rightSum = right.compute();
+            return left.join() + rightSum;
+        }
+
+        private double node(long k) {
+            return k >= segments ? rightX : leftX + k * step;
+        }
+
+        private double chunkSum() {
+            long from = fromChunk * INTEGRAL_CHUNK;
+            int length = (int) Math.min(INTEGRAL_CHUNK, segments + 1 - from);
+
+            double[] values = new double[length];
+            for (int i = 0; i < length; i++) {
+                values[i] = node(from + i);
+            }
+            f.getFunctionValues(values, values);
+
+            double sum = 0;
+            for (int i = 0; i < length; i++) {
+                long k = from + i;
+                double previous = k == 0 ? node(0) : node(k - 1);
+                double next = k == segments ? node(segments) : node(k + 1);
+                sum += values[i] * (next - previous) / 2.0;
+            }
+            return sum;
+        }
+    }
 }
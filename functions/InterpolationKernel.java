@@ -0,0 +1,97 @@
+package functions;
+
+/**
+ * Ядро пакетной интерполяции для упорядоченных аргументов.
+ * Упорядоченный пакет разбивается на серии аргументов, попадающих в один отрезок табуляции.
+ * Внутри серии параметры отрезка постоянны, и значения вычисляются циклом без ветвлений
+ * и без обращений к таблице. Если при запуске подключен модуль jdk.incubator.vector
+ * (--add-modules jdk.incubator.vector), длинные серии считает VectorInterpolationKernel,
+ * иначе - скалярный цикл, который JIT-компилятор HotSpot векторизует сам, насколько сумеет.
+ * Свойство -Dfunctions.vectorKernel=false отключает Vector API и при подключенном модуле.
+ * Выигрыш есть, когда аргументов в пакете не меньше, чем точек в таблице: иначе серии
+ * состоят из одного аргумента и выгоднее обычный проход слиянием.
+ * Порядок операций совпадает с поточечной формулой, результаты совпадают с getFunctionValue.
+ */
+final class InterpolationKernel {
+
+    /**
+     * Подключен ли Vector API. Класс VectorInterpolationKernel загружается только при true,
+     * поэтому без модуля ошибки связывания не возникает
+     */
+    private static final boolean VECTOR = vectorAvailable();
+
+    /**
+     * Самая короткая серия, которую выгодно считать векторами
+     */
+    private static final int VECTOR_MIN_RUN = 16;
+
+    private InterpolationKernel() {}
+
+    private static boolean vectorAvailable() {
+        if (!Boolean.parseBoolean(System.getProperty("functions.vectorKernel", "true"))) {
+            return false;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return VectorInterpolationKernel.lanes() > 1;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return true, если длинные серии считаются через Vector API
+     */
+    static boolean isVectorized() {
+        return VECTOR;
+    }
+
+    /**
+     * Стоит ли вычислять пакет сериями
+     * @param batchLength длина упорядоченного пакета
+     * @param pointsCount количество точек в таблице
+     */
+    static boolean worthRuns(int batchLength, int pointsCount) {
+        return batchLength >= pointsCount;
+    }
+
+    /**
+     * Находит конец серии аргументов, начинающейся с from
+     * @param args упорядоченные по возрастанию аргументы
+     * @param from номер первого аргумента серии
+     * @param bound правый конец отрезка
+     * @param lastSegment true для последнего отрезка таблицы: его правый конец входит в серию,
+     *                    у остальных отрезков аргумент, равный правому концу, относится к следующему отрезку
+     * @return номер первого аргумента за пределами серии
+     */
+    static int runEnd(double[] args, int from, double bound, boolean lastSegment) {
+        int end = from + 1;
+        if (lastSegment) {
+            while (end < args.length && args[end] <= bound) end++;
+        } else {
+            while (end < args.length && args[end] < bound) end++;
+        }
+        return end;
+    }
+
+    /**
+     * Интерполирует серию аргументов на одном отрезке
+     * @param args аргументы
+     * @param from номер первого аргумента серии
+     * @param to номер аргумента после серии
+     * @param out массив для результатов (может совпадать с args)
+     */
+    static void lerp(double[] args, int from, int to, double x1, double x2, double y1, double y2, double[] out) {
+        if (VECTOR && to - from >= VECTOR_MIN_RUN) {
+            VectorInterpolationKernel.lerp(args, from, to, x1, x2, y1, y2, out);
+            return;
+        }
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        for (int k = from; k < to; k++) {
+            out[k] = y1 + dy * (args[k] - x1) / dx;
+        }
+    }
+}
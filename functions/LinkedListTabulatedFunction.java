@@ -6,6 +6,7 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.function.Predicate;
 
 
 public class LinkedListTabulatedFunction implements TabulatedFunction {
@@ -81,6 +82,11 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
 
     private int count;
 
+    // Узел, к которому обращались последним, и его индекс (-1, если курсор не задан).
+    // Позволяет последовательному обходу по индексам работать за амортизированное O(1)
+    private transient FunctionNode cursor;
+    private transient int cursorIndex = -1;
+
     /**
      * Конструктор по умолчанию
      */
@@ -110,8 +116,8 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
 
     /**
      * Возвращает узел списка по указанному индексу.
-     * Оптимизирует доступ к элементам: для элементов в первой половине списка
-     * обход начинается с головы, для элементов во второй половине - с хвоста.
+     * Обход начинается с ближайшего из трех узлов: головы, хвоста или узла,
+     * к которому обращались последним (курсора). Найденный узел становится новым курсором.
      * Нумерация элементов начинается с 0 (голова списка не учитывается).
      *
      * @param index индекс узла (от 0 до count-1)
@@ -125,22 +131,32 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         }
 
         FunctionNode current;
+        int currentIndex;
 
-        if (index < count / 2) {
-            // Двигаемся от головы вперед
+        if (index < count - 1 - index) {
             current = head.getNext(); // начинаем с 1ого значащего элемента
-            for(int i = 0; i < index; i++) {
-                current = current.getNext();
-            }
-        }
-        else {
-            // Двигаемся от хвоста назад
+            currentIndex = 0;
+        } else {
             current = head.getPrev(); // начинаем с последнего элемента
-            for(int i = count - 1; i > index; i--) {
-                current = current.getPrev();
-            }
+            currentIndex = count - 1;
+        }
+        if (cursorIndex >= 0 && Math.abs(index - cursorIndex) < Math.abs(index - currentIndex)) {
+            current = cursor;
+            currentIndex = cursorIndex;
         }
 
+        // Двигаемся вперед или назад до нужного индекса
+        while (currentIndex < index) {
+            current = current.getNext();
+            currentIndex++;
+        }
+        while (currentIndex > index) {
+            current = current.getPrev();
+            currentIndex--;
+        }
+
+        cursor = current;
+        cursorIndex = index;
         return current;
     }
 
@@ -172,6 +188,11 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         targetNode.getPrev().setNext(newNode);
         targetNode.setPrev(newNode);
 
+        // Узлы начиная с index сдвинулись на одну позицию вправо
+        if (cursorIndex >= index) {
+            cursorIndex++;
+        }
+
         count++;
         return newNode;
     }
@@ -194,6 +215,17 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         targetNode.getPrev().setNext(targetNode.getNext());
         targetNode.getNext().setPrev(targetNode.getPrev());
 
+        // Курсор на удаленном узле переносим на следующий, остальные узлы правее сдвигаются влево
+        if (cursorIndex > index) {
+            cursorIndex--;
+        } else if (cursorIndex == index) {
+            cursor = targetNode.getNext();
+            if (cursor == head) {
+                cursor = null;
+                cursorIndex = -1;
+            }
+        }
+
         count--;
         return targetNode;
     }
@@ -311,6 +343,48 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         return Double.NaN;
     }
 
+    /**
+     * Пакетное вычисление за один проход по списку: аргументы обходятся по возрастанию
+     * (неупорядоченный пакет предварительно сортируется по индексам), а текущий узел
+     * только сдвигается вправо. Результаты совпадают с поточечным вычислением
+     * @param xs аргументы
+     * @param out массив для результатов (может совпадать с xs)
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        double leftBorder = getLeftDomainBorder();
+        double rightBorder = getRightDomainBorder();
+        int[] order = SegmentSearch.ascendingOrder(xs);
+
+        FunctionNode current = head.getNext();
+        for (int k = 0; k < xs.length; k++) {
+            int j = order == null ? k : order[k];
+            double x = xs[j];
+            if (!(x >= leftBorder && x <= rightBorder)) {
+                out[j] = Double.NaN;
+                continue;
+            }
+
+            // current - левый конец отрезка, содержащего x; последний отрезок не покидаем
+            while (current.getNext().getNext() != head && current.getNext().getPoint().getX() <= x) {
+                current = current.getNext();
+            }
+
+            FunctionPoint p1 = current.getPoint();
+            FunctionPoint p2 = current.getNext().getPoint();
+            if (Math.abs(p1.getX() - x) < 1e-10) {
+                out[j] = p1.getY();
+            } else if (Math.abs(p2.getX() - x) < 1e-10) {
+                out[j] = p2.getY();
+            } else {
+                out[j] = p1.getY() + (p2.getY() - p1.getY()) * (x - p1.getX()) / (p2.getX() - p1.getX());
+            }
+        }
+    }
+
     public int getPointsCount() {
         return count;
     }
@@ -397,6 +471,78 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         deleteNodeByIndex(index);
     }
 
+    /**
+     * Удаляет точки с индексами [from, to), вырезая цепочку узлов целиком:
+     * после поиска концов цепочки перевязываются только две ссылки
+     * @param from индекс первой удаляемой точки
+     * @param to индекс точки, следующей за последней удаляемой
+     */
+    @Override
+    public void deleteRange(int from, int to)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (from < 0 || to > count || from > to) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (count - (to - from) < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+        if (from == to) {
+            return;
+        }
+
+        FunctionNode first = getNodeByIndex(from);
+        FunctionNode last = getNodeByIndex(to - 1);
+        first.getPrev().setNext(last.getNext());
+        last.getNext().setPrev(first.getPrev());
+        count -= to - from;
+
+        cursor = null;
+        cursorIndex = -1;
+    }
+
+    /**
+     * Удаляет точки, удовлетворяющие условию, за один проход по списку
+     * @param filter условие удаления (получает копии точек)
+     * @return true, если была удалена хотя бы одна точка
+     */
+    @Override
+    public boolean removeIf(Predicate<? super FunctionPoint> filter) throws IllegalStateException {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+        boolean[] removed = new boolean[count];
+        int removedCount = 0;
+        FunctionNode current = head.getNext();
+        for (int i = 0; i < count; i++) {
+            if (filter.test(new FunctionPoint(current.getPoint()))) {
+                removed[i] = true;
+                removedCount++;
+            }
+            current = current.getNext();
+        }
+        if (count - removedCount < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+        if (removedCount == 0) {
+            return false;
+        }
+
+        current = head.getNext();
+        for (int i = 0; current != head; i++) {
+            FunctionNode next = current.getNext();
+            if (removed[i]) {
+                current.getPrev().setNext(next);
+                next.setPrev(current.getPrev());
+            }
+            current = next;
+        }
+        count -= removedCount;
+
+        cursor = null;
+        cursorIndex = -1;
+        return true;
+    }
+
     public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
         if (point == null) {
             throw new IllegalArgumentException("Point cannot be null");
@@ -423,6 +569,35 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         addNodeByIndex(insertIndex, point);
     }
 
+    /**
+     * Добавляет пакет точек за один проход по списку: O(n + m log m)
+     * @param xs координаты X новых точек
+     * @param ys значения функции в новых точках
+     */
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        batch.checkDisjoint(this::getPointX, count);
+
+        // Каждая точка пакета вставляется перед первым узлом с большей координатой
+        FunctionNode current = head.getNext();
+        for (int j = 0; j < batch.length; j++) {
+            while (current != head && current.getPoint().getX() < batch.xs[j]) {
+                current = current.getNext();
+            }
+            FunctionNode newNode = new FunctionNode(new FunctionPoint(batch.xs[j], batch.ys[j]));
+            newNode.setPrev(current.getPrev());
+            newNode.setNext(current);
+            current.getPrev().setNext(newNode);
+            current.setPrev(newNode);
+            count++;
+        }
+
+        // Индексы узлов сдвинулись, курсор сбрасываем
+        cursor = null;
+        cursorIndex = -1;
+    }
+
     @Override
     public void writeExternal(ObjectOutput out) throws IOException {
         out.writeInt(count);
@@ -445,7 +620,7 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
     @Override
     public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
         // Восстанавливаем данные и перестраиваем связный список
-        count = in.readInt();
+        int pointsCount = in.readInt();
         double[] xValues = (double[]) in.readObject();
         double[] yValues = (double[]) in.readObject();
 
@@ -453,8 +628,11 @@ public class LinkedListTabulatedFunction implements TabulatedFunction {
         head = new FunctionNode(null);
         head.setPrev(head);
         head.setNext(head);
+        count = 0; // addNodeToTail сам увеличивает счетчик
+        cursor = null;
+        cursorIndex = -1;
 
-        for (int i = 0; i < count; i++) {
+        for (int i = 0; i < pointsCount; i++) {
             addNodeToTail(new FunctionPoint(xValues[i], yValues[i]));
         }
     }
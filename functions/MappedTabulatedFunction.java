@@ -0,0 +1,349 @@
+package functions;
+
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Табулированная функция, отображенная из двоичного файла в память (FileChannel.map).
+ * Данные не копируются: функция готова к вычислениям сразу после открытия,
+ * а операционная система подгружает страницы файла по мере обращения к ним.
+ * Функция доступна только для чтения, изменяющие методы выбрасывают UnsupportedOperationException.
+ *
+ * Формат файла (версия 1), все поля в порядке байтов, заданном сигнатурой:
+ * <pre>
+ *  0  int    сигнатура 'TABF' (по ней определяется порядок байтов)
+ *  4  int    версия формата
+ *  8  int    флаги: FLAG_UNIFORM - равномерная сетка, FLAG_LITTLE_ENDIAN - порядок байтов
+ * 12  int    зарезервировано
+ * 16  long   количество точек
+ * 24  double левая граница (для равномерной сетки)
+ * 32  double шаг (для равномерной сетки)
+ * 40  double[count] координаты X (отсутствуют для равномерной сетки)
+ *     double[count] значения Y
+ * </pre>
+ */
+public class MappedTabulatedFunction implements TabulatedFunction, AutoCloseable {
+
+    static final int MAGIC = 0x54414246;
+    static final int VERSION = 1;
+    static final int FLAG_UNIFORM = 1;
+    static final int FLAG_LITTLE_ENDIAN = 2;
+    static final int HEADER_SIZE = 40;
+
+    private final int amountOfElements;
+    private final boolean uniform;
+    private final double leftX;
+    private final double step;
+    private OffHeapDoubleColumn xValues; // null для равномерной сетки
+    private OffHeapDoubleColumn yValues;
+    private boolean closed;
+
+    /**
+     * Открывает файл и отображает его в память
+     * @param file путь к файлу в формате, записанном TabulatedFunctions.writeBinaryTabulatedFunction
+     * @throws IOException если файл не читается или имеет неверный формат
+     */
+    public MappedTabulatedFunction(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_SIZE) {
+                throw new IOException("File is too short for a tabulated function header");
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+
+            // Порядок байтов определяется по сигнатуре
+            header.order(ByteOrder.BIG_ENDIAN);
+            int magic = header.getInt(0);
+            if (magic == Integer.reverseBytes(MAGIC)) {
+                header.order(ByteOrder.LITTLE_ENDIAN);
+            } else if (magic != MAGIC) {
+                throw new IOException("Not a tabulated function file");
+            }
+            ByteOrder order = header.order();
+
+            int version = header.getInt(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported format version: " + version);
+            }
+            int flags = header.getInt(8);
+            if (((flags & FLAG_LITTLE_ENDIAN) != 0) != (order == ByteOrder.LITTLE_ENDIAN)) {
+                throw new IOException("Byte order flag does not match the signature");
+            }
+            long count = header.getLong(16);
+            if (count < 2 || count > Integer.MAX_VALUE) {
+                throw new IOException("Incorrect count of points: " + count);
+            }
+
+            this.amountOfElements = (int) count;
+            this.uniform = (flags & FLAG_UNIFORM) != 0;
+            this.leftX = header.getDouble(24);
+            this.step = header.getDouble(32);
+            // Для равномерной сетки координаты вычисляются по заголовку, проверить их больше негде
+            if (uniform) {
+                if (!Double.isFinite(leftX)) {
+                    throw new IOException("Incorrect left border: " + leftX);
+                }
+                if (!(step > 0) || !Double.isFinite(leftX + (count - 1) * step)) {
+                    throw new IOException("Incorrect step: " + step);
+                }
+            }
+
+            long columns = uniform ? 1 : 2;
+            if (channel.size() < HEADER_SIZE + columns * count * Double.BYTES) {
+                throw new IOException("File is shorter than its header declares");
+            }
+
+            long offset = HEADER_SIZE;
+            if (!uniform) {
+                this.xValues = mapColumn(channel, offset, count, order);
+                offset += count * Double.BYTES;
+            }
+            this.yValues = mapColumn(channel, offset, count, order);
+        }
+    }
+
+    /**
+     * Отображает столбец страницами по OffHeapDoubleColumn.PAGE_SIZE элементов.
+     * Отображение остается действительным и после закрытия канала
+     */
+    private static OffHeapDoubleColumn mapColumn(FileChannel channel, long offset, long count, ByteOrder order)
+            throws IOException {
+        int pageCount = (int) ((count + OffHeapDoubleColumn.PAGE_MASK) >>> OffHeapDoubleColumn.PAGE_SHIFT);
+        DoubleBuffer[] pages = new DoubleBuffer[pageCount];
+        for (int p = 0; p < pageCount; p++) {
+            long first = (long) p << OffHeapDoubleColumn.PAGE_SHIFT;
+            long size = Math.min(OffHeapDoubleColumn.PAGE_SIZE, count - first);
+            pages[p] = channel.map(FileChannel.MapMode.READ_ONLY, offset + first * Double.BYTES, size * Double.BYTES)
+                    .order(order)
+                    .asDoubleBuffer();
+        }
+        return new OffHeapDoubleColumn(pages);
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Mapped function is closed");
+        }
+    }
+
+    private static UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Mapped function is read-only");
+    }
+
+    /**
+     * Отпускает отображение. Повторный вызов ничего не делает
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        if (xValues != null) xValues.close();
+        yValues.close();
+    }
+
+    /**
+     * @return true, если координаты X не хранятся в файле, а вычисляются по шагу
+     */
+    public boolean isUniform() {
+        return uniform;
+    }
+
+    private double x(int index) {
+        return uniform ? leftX + index * step : xValues.get(index);
+    }
+
+    public double getLeftDomainBorder() {
+        checkOpen();
+        return x(0);
+    }
+
+    public double getRightDomainBorder() {
+        checkOpen();
+        return x(amountOfElements - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        checkOpen();
+        int i;
+        if (uniform) {
+            if (!(x >= leftX && x <= x(amountOfElements - 1))) {
+                return Double.NaN;
+            }
+            // Как в UniformTabulatedFunction: деление и поправка на округление
+            i = (int) ((x - leftX) / step);
+            if (i > amountOfElements - 2) i = amountOfElements - 2;
+            if (i > 0 && x < x(i)) i--;
+            else if (i < amountOfElements - 2 && x >= x(i + 1)) i++;
+        } else {
+            i = SegmentSearch.findSegment(xValues, amountOfElements, x);
+            if (i < 0) {
+                return Double.NaN;
+            }
+        }
+
+        double x1 = x(i);
+        double x2 = x(i + 1);
+        double y1 = yValues.get(i);
+        double y2 = yValues.get(i + 1);
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    public int getPointsCount() {
+        checkOpen();
+        return amountOfElements;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return new FunctionPoint(x(index), yValues.get(index));
+    }
+
+    public void setPoint(int index, FunctionPoint point) {
+        throw readOnly();
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return x(index);
+    }
+
+    public void setPointX(int index, double x) {
+        throw readOnly();
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return yValues.get(index);
+    }
+
+    public void setPointY(int index, double y) {
+        throw readOnly();
+    }
+
+    public void deletePoint(int index) {
+        throw readOnly();
+    }
+
+    public void addPoint(FunctionPoint point) {
+        throw readOnly();
+    }
+
+    /**
+     * При сериализации отображенная функция заменяется копией в куче
+     */
+    private Object writeReplace() {
+        checkOpen();
+        double[] xs = new double[amountOfElements];
+        double[] ys = new double[amountOfElements];
+        for (int i = 0; i < amountOfElements; i++) {
+            xs[i] = x(i);
+            ys[i] = yValues.get(i);
+        }
+        return new DoubleArrayTabulatedFunction(xs, ys);
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        ((DoubleArrayTabulatedFunction) writeReplace()).writeExternal(out);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException {
+        throw new InvalidObjectException("Mapped function is serialized as DoubleArrayTabulatedFunction");
+    }
+
+    @Override
+    public String toString() {
+        if (closed) return "{closed}";
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < amountOfElements; i++) {
+            sb.append("(").append(x(i)).append("; ").append(yValues.get(i)).append(")");
+            if (i < amountOfElements - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || !(obj instanceof TabulatedFunction)) return false;
+        checkOpen();
+
+        TabulatedFunction other = (TabulatedFunction) obj;
+        if (this.amountOfElements != other.getPointsCount()) return false;
+
+        for (int i = 0; i < amountOfElements; i++) {
+            if (Double.compare(x(i), other.getPointX(i)) != 0
+                    || Double.compare(yValues.get(i), other.getPointY(i)) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        checkOpen();
+        // Совпадает с хэшем остальных реализаций с теми же точками
+        int hash = 17;
+        for (int i = 0; i < amountOfElements; i++) {
+            hash = 31 * hash + (Double.hashCode(x(i)) ^ Double.hashCode(yValues.get(i)));
+        }
+        return hash;
+    }
+
+    /**
+     * Клон отображенной функции - изменяемая копия в куче
+     * @return клон объекта
+     */
+    @Override
+    public Object clone() {
+        return writeReplace();
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        checkOpen();
+        return new Iterator<FunctionPoint>() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return index < amountOfElements;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("NoSuchElement!");
+                }
+                checkOpen();
+                FunctionPoint p = new FunctionPoint(x(index), yValues.get(index));
+                index++;
+                return p;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("You cannot do remove operation!");
+            }
+        };
+    }
+}
@@ -0,0 +1,125 @@
+package functions;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * Столбец чисел double вне кучи Java.
+ * Данные лежат в страницах по PAGE_SIZE элементов (прямые буферы), поэтому размер
+ * столбца не ограничен 2 ГБ одного буфера, а сборщик мусора видит только массив страниц.
+ * Пока столбец помещается в одну страницу, она выделяется по размеру и растет копированием.
+ * Память страниц возвращается системе очистителями буферов после того, как столбец их отпустит
+ */
+final class OffHeapDoubleColumn {
+
+    static final int PAGE_SHIFT = 20;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private DoubleBuffer[] pages;
+    private long capacity;
+    private final boolean owned; // false - страницы чужие, и столбец не растет
+
+    /**
+     * Выделяет столбец заданной вместимости
+     * @param capacity количество элементов
+     */
+    OffHeapDoubleColumn(long capacity) {
+        this.pages = new DoubleBuffer[0];
+        this.owned = true;
+        ensureCapacity(Math.max(capacity, 1));
+    }
+
+    /**
+     * Оборачивает уже выделенные (например, отображенные из файла) страницы.
+     * Все страницы, кроме последней, должны содержать ровно PAGE_SIZE элементов.
+     * Столбец не владеет такими страницами, поэтому его вместимость не растет
+     * @param pages страницы столбца
+     */
+    OffHeapDoubleColumn(DoubleBuffer[] pages) {
+        this.pages = pages;
+        this.owned = false;
+        long total = 0;
+        for (DoubleBuffer page : pages) {
+            total += page.capacity();
+        }
+        this.capacity = total;
+    }
+
+    private static DoubleBuffer allocatePage(int size) {
+        return ByteBuffer.allocateDirect(size * Double.BYTES).order(ByteOrder.nativeOrder()).asDoubleBuffer();
+    }
+
+    double get(long index) {
+        return pages[(int) (index >>> PAGE_SHIFT)].get((int) (index & PAGE_MASK));
+    }
+
+    void set(long index, double value) {
+        pages[(int) (index >>> PAGE_SHIFT)].put((int) (index & PAGE_MASK), value);
+    }
+
+    long capacity() {
+        return capacity;
+    }
+
+    /**
+     * Увеличивает вместимость не меньше чем до required элементов
+     * @throws IllegalStateException если страницы столбца чужие и их не хватает
+     */
+    void ensureCapacity(long required) {
+        if (required <= capacity) return;
+        if (!owned) throw new IllegalStateException("Column over wrapped pages cannot grow");
+
+        if (required <= PAGE_SIZE) {
+            // Единственная неполная страница растет в полтора раза
+            int size = (int) Math.min(PAGE_SIZE, Math.max(required, capacity + (capacity >> 1)));
+            DoubleBuffer page = allocatePage(size);
+            if (pages.length > 0) {
+                DoubleBuffer old = pages[0].duplicate();
+                old.clear();
+                page.put(old);
+                page.clear();
+            }
+            pages = new DoubleBuffer[] {page};
+            capacity = size;
+            return;
+        }
+
+        // Сначала доводим первую страницу до полного размера, затем добавляем полные страницы
+        ensureCapacity(PAGE_SIZE);
+        int pageCount = (int) ((required + PAGE_MASK) >>> PAGE_SHIFT);
+        DoubleBuffer[] grown = new DoubleBuffer[pageCount];
+        System.arraycopy(pages, 0, grown, 0, pages.length);
+        for (int i = pages.length; i < pageCount; i++) {
+            grown[i] = allocatePage(PAGE_SIZE);
+        }
+        pages = grown;
+        capacity = (long) pageCount * PAGE_SIZE;
+    }
+
+    /**
+     * Копирует length элементов с позиции from на позицию to (области могут перекрываться)
+     */
+    void move(long from, long to, long length) {
+        if (from > to) {
+            for (long i = 0; i < length; i++) {
+                set(to + i, get(from + i));
+            }
+        } else {
+            for (long i = length - 1; i >= 0; i--) {
+                set(to + i, get(from + i));
+            }
+        }
+    }
+
+    /**
+     * Отпускает страницы. Память прямых буферов возвращается системе их очистителем,
+     * любое обращение к закрытому столбцу приводит к NullPointerException, поэтому
+     * владелец столбца обязан проверять признак закрытия сам
+     */
+    void close() {
+        pages = null;
+        capacity = 0;
+    }
+}
@@ -0,0 +1,407 @@
+package functions;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Табулированная функция, хранящая координаты вне кучи Java, в двух столбцах прямых буферов.
+ * Предназначена для таблиц на миллиарды точек: сборщик мусора не обходит и не копирует
+ * сами данные. Интерполяция и обход такие же, как у ArrayTabulatedFunction.
+ * Функцию нужно закрывать методом close() (например, в try-with-resources); после закрытия
+ * любое обращение к точкам выбрасывает IllegalStateException.
+ */
+public class OffHeapTabulatedFunction implements TabulatedFunction, AutoCloseable {
+    private transient OffHeapDoubleColumn xValues;
+    private transient OffHeapDoubleColumn yValues;
+    private int amountOfElements;
+    private transient volatile boolean closed;
+
+    public OffHeapTabulatedFunction() {}
+
+    /**
+     * Создает табличную функцию с равномерно распределенными точками
+     * @param leftX левая граница области определения
+     * @param rightX правая граница области определения
+     * @param pointsCount количество точек
+     */
+    public OffHeapTabulatedFunction(double leftX, double rightX, int pointsCount)
+            throws IllegalArgumentException {
+        if (leftX >= rightX)
+            throw new IllegalArgumentException("Left border must be less than right border!");
+        if (pointsCount < 2)
+            throw new IllegalArgumentException("Count of points must be at least 2!");
+
+        allocate(pointsCount);
+        double distance = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            xValues.set(i, leftX + i * distance);
+        }
+    }
+
+    /**
+     * Создает табличную функцию с равномерно распределенными точками и заданными значениями функции
+     * @param leftX левая граница области определения
+     * @param rightX правая граница области определения
+     * @param values массив значений функции в точках
+     */
+    public OffHeapTabulatedFunction(double leftX, double rightX, double[] values)
+            throws IllegalArgumentException {
+        if (leftX >= rightX)
+            throw new IllegalArgumentException("Left border must be less than right border!");
+        if (values.length < 2)
+            throw new IllegalArgumentException("Count of points must be at least 2!");
+
+        allocate(values.length);
+        double distance = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            xValues.set(i, leftX + i * distance);
+            yValues.set(i, values[i]);
+        }
+    }
+
+    /**
+     * Создает табличную функцию по массиву точек
+     * @param massiveOfPoints массив точек
+     */
+    public OffHeapTabulatedFunction(FunctionPoint[] massiveOfPoints) throws IllegalArgumentException {
+        if (massiveOfPoints.length < 2)
+            throw new IllegalArgumentException("Massive length must be greater than 2!");
+
+        for (int i = 1; i < massiveOfPoints.length; i++) {
+            if (massiveOfPoints[i].getX() < massiveOfPoints[i-1].getX()) {
+                throw new IllegalArgumentException("IllegalArgumentException");
+            }
+        }
+
+        allocate(massiveOfPoints.length);
+        for (int i = 0; i < massiveOfPoints.length; i++) {
+            xValues.set(i, massiveOfPoints[i].getX());
+            yValues.set(i, massiveOfPoints[i].getY());
+        }
+    }
+
+    private void allocate(int pointsCount) {
+        xValues = new OffHeapDoubleColumn(pointsCount);
+        yValues = new OffHeapDoubleColumn(pointsCount);
+        amountOfElements = pointsCount;
+        closed = false;
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("Off-heap function is closed");
+        }
+    }
+
+    /**
+     * Отпускает память вне кучи: ее возвращают системе очистители буферов, когда сборщик мусора
+     * обнаружит, что страницы недостижимы. Явно память не освобождается, поэтому поток, который
+     * прошел проверку закрытия до close(), читает еще действительные страницы или получает исключение,
+     * но не обращается к освобожденной памяти. Закрывать функцию, пока ее читают другие потоки,
+     * все равно нельзя. Повторный вызов ничего не делает
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        xValues.close();
+        yValues.close();
+    }
+
+    /**
+     * @return true, если функция уже закрыта
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public double getLeftDomainBorder() {
+        checkOpen();
+        return xValues.get(0);
+    }
+
+    public double getRightDomainBorder() {
+        checkOpen();
+        return xValues.get(amountOfElements - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        checkOpen();
+        int i = SegmentSearch.findSegment(xValues, amountOfElements, x);
+        if (i < 0) {
+            return Double.NaN;
+        }
+
+        double x1 = xValues.get(i);
+        double x2 = xValues.get(i + 1);
+        double y1 = yValues.get(i);
+        double y2 = yValues.get(i + 1);
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    public int getPointsCount() {
+        checkOpen();
+        return amountOfElements;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return new FunctionPoint(xValues.get(index), yValues.get(index));
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements || point == null)
+            throw new FunctionPointIndexOutOfBoundsException();
+        if ((index > 0 && point.getX() <= xValues.get(index - 1)) ||
+                (index < amountOfElements - 1 && point.getX() >= xValues.get(index + 1)))
+            throw new InappropriateFunctionPointException();
+        xValues.set(index, point.getX());
+        yValues.set(index, point.getY());
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return xValues.get(index);
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if ((index > 0 && x <= xValues.get(index - 1)) ||
+                (index < amountOfElements - 1 && x >= xValues.get(index + 1))) {
+            throw new InappropriateFunctionPointException();
+        }
+        xValues.set(index, x);
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return yValues.get(index);
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        yValues.set(index, y);
+    }
+
+    public void deletePoint(int index)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        checkOpen();
+        if (index < 0 || index >= amountOfElements) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (amountOfElements < 3) {
+            throw new IllegalStateException("Cannot delete point: minimum 3 points required");
+        }
+
+        int tail = amountOfElements - index - 1;
+        xValues.move(index + 1, index, tail);
+        yValues.move(index + 1, index, tail);
+        amountOfElements--;
+    }
+
+    /**
+     * Удаляет точки с индексами [from, to) одним сдвигом хвоста
+     * @param from индекс первой удаляемой точки
+     * @param to индекс точки, следующей за последней удаляемой
+     */
+    @Override
+    public void deleteRange(int from, int to)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        checkOpen();
+        if (from < 0 || to > amountOfElements || from > to) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (amountOfElements - (to - from) < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+
+        int tail = amountOfElements - to;
+        xValues.move(to, from, tail);
+        yValues.move(to, from, tail);
+        amountOfElements -= to - from;
+    }
+
+    public void addPoint(FunctionPoint point)
+            throws InappropriateFunctionPointException, IllegalArgumentException {
+        checkOpen();
+        if (point == null) {
+            throw new IllegalArgumentException("Point cannot be null");
+        }
+        double x = point.getX();
+
+        // Позиция вставки: после отрезка, содержащего x, или с краю
+        int pos;
+        if (x < xValues.get(0)) {
+            pos = 0;
+        } else if (x > xValues.get(amountOfElements - 1)) {
+            pos = amountOfElements;
+        } else {
+            pos = SegmentSearch.findSegment(xValues, amountOfElements, x) + 1;
+        }
+
+        if ((pos > 0 && Math.abs(xValues.get(pos - 1) - x) < 1e-10) ||
+                (pos < amountOfElements && Math.abs(xValues.get(pos) - x) < 1e-10)) {
+            throw new InappropriateFunctionPointException();
+        }
+
+        xValues.ensureCapacity(amountOfElements + 1L);
+        yValues.ensureCapacity(amountOfElements + 1L);
+        int tail = amountOfElements - pos;
+        xValues.move(pos, pos + 1, tail);
+        yValues.move(pos, pos + 1, tail);
+        xValues.set(pos, x);
+        yValues.set(pos, point.getY());
+        amountOfElements++;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        checkOpen();
+        // Формат совпадает с ArrayTabulatedFunction: количество точек и два массива координат
+        double[] xs = new double[amountOfElements];
+        double[] ys = new double[amountOfElements];
+        for (int i = 0; i < amountOfElements; i++) {
+            xs[i] = xValues.get(i);
+            ys[i] = yValues.get(i);
+        }
+        out.writeInt(amountOfElements);
+        out.writeObject(xs);
+        out.writeObject(ys);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int count = in.readInt();
+        double[] xs = (double[]) in.readObject();
+        double[] ys = (double[]) in.readObject();
+
+        allocate(count);
+        for (int i = 0; i < count; i++) {
+            xValues.set(i, xs[i]);
+            yValues.set(i, ys[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        if (closed) return "{closed}";
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < amountOfElements; i++) {
+            sb.append("(").append(xValues.get(i)).append("; ").append(yValues.get(i)).append(")");
+            if (i < amountOfElements - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || !(obj instanceof TabulatedFunction)) return false;
+        checkOpen();
+
+        TabulatedFunction other = (TabulatedFunction) obj;
+        if (this.amountOfElements != other.getPointsCount()) return false;
+
+        for (int i = 0; i < amountOfElements; i++) {
+            if (Double.compare(xValues.get(i), other.getPointX(i)) != 0
+                    || Double.compare(yValues.get(i), other.getPointY(i)) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        checkOpen();
+        // Совпадает с хэшем остальных реализаций с теми же точками
+        int hash = 17;
+        for (int i = 0; i < amountOfElements; i++) {
+            hash = 31 * hash + (Double.hashCode(xValues.get(i)) ^ Double.hashCode(yValues.get(i)));
+        }
+        return hash;
+    }
+
+    /**
+     * Клонирует функцию в новую область памяти вне кучи, которую тоже нужно закрыть
+     * @return клон объекта
+     */
+    @Override
+    public Object clone() {
+        checkOpen();
+        OffHeapTabulatedFunction copy = new OffHeapTabulatedFunction();
+        copy.allocate(amountOfElements);
+        for (int i = 0; i < amountOfElements; i++) {
+            copy.xValues.set(i, xValues.get(i));
+            copy.yValues.set(i, yValues.get(i));
+        }
+        return copy;
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        checkOpen();
+        return new Iterator<FunctionPoint>() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return index < amountOfElements;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("NoSuchElement!");
+                }
+                checkOpen();
+                FunctionPoint p = new FunctionPoint(xValues.get(index), yValues.get(index));
+                index++;
+                return p;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("You cannot do remove operation!");
+            }
+        };
+    }
+
+    public static class OffHeapTabulatedFunctionFactory implements TabulatedFunctionFactory {
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) throws IllegalArgumentException {
+            return new OffHeapTabulatedFunction(leftX, rightX, pointsCount);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values) throws IllegalArgumentException {
+            return new OffHeapTabulatedFunction(leftX, rightX, values);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(FunctionPoint[] points) throws IllegalArgumentException {
+            return new OffHeapTabulatedFunction(points);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package functions;
+
+import java.util.Arrays;
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * Пакет точек для массовой вставки: координаты, упорядоченные по X и проверенные на дубликаты.
+ * Используется реализациями TabulatedFunction.addPoints, чтобы слить пакет с таблицей за один проход.
+ */
+final class PointBatch {
+    final double[] xs;
+    final double[] ys;
+    final int length;
+
+    private PointBatch(double[] xs, double[] ys) {
+        this.xs = xs;
+        this.ys = ys;
+        this.length = xs.length;
+    }
+
+    /**
+     * Копирует пакет точек и упорядочивает его по X
+     * @throws InappropriateFunctionPointException если в пакете есть совпадающие координаты
+     */
+    static PointBatch of(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        if (points == null) {
+            throw new IllegalArgumentException("Points array cannot be null");
+        }
+        double[] xs = new double[points.length];
+        double[] ys = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            if (points[i] == null) {
+                throw new IllegalArgumentException("Point cannot be null");
+            }
+            xs[i] = points[i].getX();
+            ys[i] = points[i].getY();
+        }
+        return sorted(xs, ys);
+    }
+
+    /**
+     * Копирует пакет координат и упорядочивает его по X
+     * @throws InappropriateFunctionPointException если в пакете есть совпадающие координаты
+     */
+    static PointBatch of(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (xs == null || ys == null) {
+            throw new IllegalArgumentException("Arrays cannot be null");
+        }
+        if (xs.length != ys.length) {
+            throw new IllegalArgumentException("Arrays of X and Y must have the same length!");
+        }
+        return sorted(Arrays.copyOf(xs, xs.length), Arrays.copyOf(ys, ys.length));
+    }
+
+    private static PointBatch sorted(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        for (double x : xs) {
+            if (Double.isNaN(x)) {
+                throw new InappropriateFunctionPointException();
+            }
+        }
+
+        // Уже упорядоченный пакет (частый случай) не сортируется
+        boolean ordered = true;
+        for (int i = 1; i < xs.length && ordered; i++) {
+            ordered = xs[i - 1] <= xs[i];
+        }
+        if (!ordered) {
+            double[] keys = xs;
+            Integer[] order = new Integer[xs.length];
+            for (int i = 0; i < order.length; i++) order[i] = i;
+            Arrays.sort(order, (a, b) -> Double.compare(keys[a], keys[b]));
+
+            double[] sortedX = new double[xs.length];
+            double[] sortedY = new double[ys.length];
+            for (int i = 0; i < order.length; i++) {
+                sortedX[i] = xs[order[i]];
+                sortedY[i] = ys[order[i]];
+            }
+            xs = sortedX;
+            ys = sortedY;
+        }
+
+        for (int i = 1; i < xs.length; i++) {
+            if (xs[i] - xs[i - 1] < 1e-10) {
+                throw new InappropriateFunctionPointException();
+            }
+        }
+        return new PointBatch(xs, ys);
+    }
+
+    /**
+     * Проверяет одним проходом слияния, что ни одна точка пакета не совпадает с точкой таблицы.
+     * Совпадающие с точностью 1e-10 координаты при слиянии обязательно оказываются соседями
+     * @param existingX координата X точки таблицы по индексу
+     * @param count количество точек в таблице
+     */
+    void checkDisjoint(IntToDoubleFunction existingX, int count) throws InappropriateFunctionPointException {
+        int i = 0;
+        int j = 0;
+        while (i < count && j < length) {
+            double a = existingX.applyAsDouble(i);
+            double b = xs[j];
+            if (Math.abs(a - b) < 1e-10) {
+                throw new InappropriateFunctionPointException();
+            }
+            if (a < b) i++;
+            else j++;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package functions;
+
+import java.util.Arrays;
+
+/**
+ * Последовательность чисел с неявными ключами - декартово дерево по позиции (treap):
+ * вставка, удаление и замена элемента по индексу и префиксная сумма за O(log n) в среднем,
+ * удаление k элементов подряд за O(log n + k), построение за O(n).
+ * Узлы хранятся в параллельных массивах, освобожденные узлы переиспользуются.
+ * Используется как индекс площадей отрезков в ArrayTabulatedFunction: вставка точки в середину
+ * делит один отрезок на два, удаление сливает два в один, и остальные площади не пересчитываются
+ */
+final class PrefixSumTreap {
+    private static final int NIL = 0; // узел 0 - пустое поддерево: count и sum равны нулю
+
+    private int[] left;
+    private int[] right;
+    private int[] count;     // количество элементов в поддереве
+    private int[] priority;  // приоритет родителя не меньше приоритетов детей
+    private double[] value;
+    private double[] sum;    // сумма элементов поддерева
+    private int root = NIL;
+    private int used = 1;    // узлы 1..used-1 выделены
+    private int free = NIL;  // освобожденные узлы, связанные через right
+    private int seed = 0x2545F491;
+
+    private int splitLeft;   // результаты split
+    private int splitRight;
+
+    /**
+     * Строит дерево за O(n)
+     * @param values элементы
+     * @param size количество используемых элементов
+     */
+    PrefixSumTreap(double[] values, int size) {
+        allocate(size + 1);
+        // Декартово дерево по случайным приоритетам строится стеком правой ветви
+        int[] stack = new int[size];
+        int top = 0;
+        for (int i = 0; i < size; i++) {
+            int node = newNode(values[i]);
+            int last = NIL;
+            while (top > 0 && priority[stack[top - 1]] < priority[node]) {
+                last = stack[--top];
+                update(last);
+            }
+            left[node] = last;
+            if (top > 0) {
+                right[stack[top - 1]] = node;
+            }
+            stack[top++] = node;
+        }
+        if (top > 0) {
+            root = stack[0];
+        }
+        while (top > 0) {
+            update(stack[--top]);
+        }
+    }
+
+    int size() {
+        return count[root];
+    }
+
+    double get(int index) {
+        int t = root;
+        while (true) {
+            int l = count[left[t]];
+            if (index < l) {
+                t = left[t];
+            } else if (index > l) {
+                index -= l + 1;
+                t = right[t];
+            } else {
+                return value[t];
+            }
+        }
+    }
+
+    /**
+     * Заменяет элемент за O(log n)
+     */
+    void set(int index, double newValue) {
+        set(root, index, newValue);
+    }
+
+    /**
+     * Вставляет элемент так, что он получает индекс index, за O(log n)
+     */
+    void insert(int index, double newValue) {
+        int node = newNode(newValue);
+        split(root, index);
+        int after = splitRight;
+        root = merge(merge(splitLeft, node), after);
+    }
+
+    /**
+     * Удаляет элемент за O(log n)
+     */
+    void remove(int index) {
+        removeRange(index, index + 1);
+    }
+
+    /**
+     * Удаляет элементы с индексами [from, to) за O(log n + (to - from))
+     */
+    void removeRange(int from, int to) {
+        if (from >= to) return;
+        split(root, from);
+        int before = splitLeft;
+        split(splitRight, to - from);
+        int after = splitRight;
+        release(splitLeft);
+        root = merge(before, after);
+    }
+
+    /**
+     * @return сумма первых n элементов
+     */
+    double prefixSum(int n) {
+        double result = 0;
+        int t = root;
+        while (t != NIL && n > 0) {
+            int l = count[left[t]];
+            if (n <= l) {
+                t = left[t];
+            } else {
+                result += sum[left[t]] + value[t];
+                n -= l + 1;
+                t = right[t];
+            }
+        }
+        return result;
+    }
+
+    private void set(int t, int index, double newValue) {
+        int l = count[left[t]];
+        if (index < l) {
+            set(left[t], index, newValue);
+        } else if (index > l) {
+            set(right[t], index - l - 1, newValue);
+        } else {
+            value[t] = newValue;
+        }
+        update(t);
+    }
+
+    /**
+     * Делит поддерево t на первые k элементов (splitLeft) и остальные (splitRight)
+     */
+    private void split(int t, int k) {
+        if (t == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+            return;
+        }
+        if (count[left[t]] >= k) {
+            split(left[t], k);
+            left[t] = splitRight;
+            update(t);
+            splitRight = t;
+        } else {
+            split(right[t], k - count[left[t]] - 1);
+            right[t] = splitLeft;
+            update(t);
+            splitLeft = t;
+        }
+    }
+
+    /**
+     * Сливает поддеревья, все элементы a идут перед элементами b
+     */
+    private int merge(int a, int b) {
+        if (a == NIL) return b;
+        if (b == NIL) return a;
+        if (priority[a] > priority[b]) {
+            right[a] = merge(right[a], b);
+            update(a);
+            return a;
+        }
+        left[b] = merge(a, left[b]);
+        update(b);
+        return b;
+    }
+
+    private void update(int t) {
+        count[t] = count[left[t]] + count[right[t]] + 1;
+        sum[t] = sum[left[t]] + value[t] + sum[right[t]];
+    }
+
+    private int newNode(double newValue) {
+        int node;
+        if (free != NIL) {
+            node = free;
+            free = right[node];
+        } else {
+            if (used == value.length) {
+                allocate(used + (used >> 1) + 1);
+            }
+            node = used++;
+        }
+        left[node] = NIL;
+        right[node] = NIL;
+        // xorshift: приоритеты должны быть случайными относительно порядка вставок
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        priority[node] = seed;
+        value[node] = newValue;
+        update(node);
+        return node;
+    }
+
+    private void release(int t) {
+        if (t == NIL) return;
+        release(left[t]);
+        release(right[t]);
+        right[t] = free;
+        free = t;
+    }
+
+    private void allocate(int capacity) {
+        if (left == null) {
+            left = new int[capacity];
+            right = new int[capacity];
+            count = new int[capacity];
+            priority = new int[capacity];
+            value = new double[capacity];
+            sum = new double[capacity];
+            return;
+        }
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        count = Arrays.copyOf(count, capacity);
+        priority = Arrays.copyOf(priority, capacity);
+        value = Arrays.copyOf(value, capacity);
+        sum = Arrays.copyOf(sum, capacity);
+    }
+}
@@ -0,0 +1,247 @@
+package functions;
+
+import java.util.Arrays;
+
+/**
+ * Поиск отрезка табуляции, содержащего заданную координату.
+ * Сначала делается несколько шагов интерполяционного поиска (на равномерной сетке
+ * он находит отрезок за одно-два сравнения), затем поиск продолжается делением пополам,
+ * поэтому на неравномерной сетке время остается O(log n).
+ */
+final class SegmentSearch {
+
+    /**
+     * Количество интерполяционных проб до перехода к бинарному поиску
+     */
+    private static final int INTERPOLATION_PROBES = 3;
+
+    /**
+     * Сколько отрезков пакетное вычисление проходит подряд, прежде чем искать заново
+     */
+    static final int WALK_LIMIT = 8;
+
+    private SegmentSearch() {}
+
+    /**
+     * Находит номер отрезка [xs[i], xs[i+1]], содержащего x
+     * @param xs упорядоченные по возрастанию координаты X
+     * @param count количество используемых элементов массива (не меньше 2)
+     * @param x искомая координата
+     * @return наибольший i из [0, count-2] с xs[i] <= x или -1, если x вне [xs[0], xs[count-1]]
+     */
+    static int findSegment(double[] xs, int count, double x) {
+        int last = count - 1;
+        // Отрицательная форма условия отсекает и NaN
+        if (!(x >= xs[0] && x <= xs[last])) {
+            return -1;
+        }
+        if (x >= xs[last - 1]) {
+            return last - 1;
+        }
+
+        // Инвариант: xs[lo] <= x < xs[hi]
+        int lo = 0;
+        int hi = last - 1;
+        double loX = xs[lo];
+        double hiX = xs[hi];
+        int probes = INTERPOLATION_PROBES;
+        while (hi - lo > 1) {
+            int mid = probe(lo, hi, loX, hiX, x, probes-- > 0);
+            double midX = xs[mid];
+            if (midX <= x) {
+                lo = mid;
+                loX = midX;
+            } else {
+                hi = mid;
+                hiX = midX;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * То же, что findSegment(double[], int, double), для столбца вне кучи
+     */
+    static int findSegment(OffHeapDoubleColumn xs, int count, double x) {
+        int last = count - 1;
+        if (!(x >= xs.get(0) && x <= xs.get(last))) {
+            return -1;
+        }
+        if (x >= xs.get(last - 1)) {
+            return last - 1;
+        }
+
+        int lo = 0;
+        int hi = last - 1;
+        double loX = xs.get(lo);
+        double hiX = xs.get(hi);
+        int probes = INTERPOLATION_PROBES;
+        while (hi - lo > 1) {
+            int mid = probe(lo, hi, loX, hiX, x, probes-- > 0);
+            double midX = xs.get(mid);
+            if (midX <= x) {
+                lo = mid;
+                loX = midX;
+            } else {
+                hi = mid;
+                hiX = midX;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * То же, что findSegment(double[], int, double), для массива точек
+     */
+    static int findSegment(FunctionPoint[] points, int count, double x) {
+        int last = count - 1;
+        if (!(x >= points[0].getX() && x <= points[last].getX())) {
+            return -1;
+        }
+        if (x >= points[last - 1].getX()) {
+            return last - 1;
+        }
+
+        int lo = 0;
+        int hi = last - 1;
+        double loX = points[lo].getX();
+        double hiX = points[hi].getX();
+        int probes = INTERPOLATION_PROBES;
+        while (hi - lo > 1) {
+            int mid = probe(lo, hi, loX, hiX, x, probes-- > 0);
+            double midX = points[mid].getX();
+            if (midX <= x) {
+                lo = mid;
+                loX = midX;
+            } else {
+                hi = mid;
+                hiX = midX;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Следующая проба внутри (lo, hi): интерполяционная, пока они не исчерпаны и отрезок
+     * ненулевой длины, иначе середина
+     */
+    private static int probe(int lo, int hi, double loX, double hiX, double x, boolean interpolate) {
+        double span = hiX - loX;
+        if (interpolate && span > 0) {
+            int mid = lo + (int) ((x - loX) / span * (hi - lo));
+            if (mid <= lo) return lo + 1;
+            if (mid >= hi) return hi - 1;
+            return mid;
+        }
+        return (lo + hi) >>> 1;
+    }
+
+    /**
+     * Вычисляет значения кусочно-линейной функции для массива аргументов.
+     * Если аргументы упорядочены по возрастанию, отрезок ищется слиянием: от отрезка предыдущего
+     * аргумента делается не больше WALK_LIMIT шагов вправо, и только при большом разрыве
+     * выполняется новый поиск. Результаты совпадают с поточечным вычислением
+     * @param xs упорядоченные по возрастанию координаты X
+     * @param ys значения Y
+     * @param count количество используемых элементов массивов (не меньше 2)
+     * @param args аргументы
+     * @param out массив для результатов (может совпадать с args)
+     */
+    static void interpolate(double[] xs, double[] ys, int count, double[] args, double[] out) {
+        boolean ascending = isAscending(args);
+        if (ascending && InterpolationKernel.worthRuns(args.length, count)) {
+            interpolateRuns(xs, ys, count, args, out);
+            return;
+        }
+        double left = xs[0];
+        double right = xs[count - 1];
+        int i = 0;
+        for (int k = 0; k < args.length; k++) {
+            double x = args[k];
+            if (!(x >= left && x <= right)) {
+                out[k] = Double.NaN;
+                continue;
+            }
+            if (ascending) {
+                int steps = 0;
+                while (i < count - 2 && xs[i + 1] <= x && steps < WALK_LIMIT) {
+                    i++;
+                    steps++;
+                }
+                if (i < count - 2 && xs[i + 1] <= x) {
+                    i = findSegment(xs, count, x);
+                }
+            } else {
+                i = findSegment(xs, count, x);
+            }
+
+            double x1 = xs[i];
+            double x2 = xs[i + 1];
+            double y1 = ys[i];
+            double y2 = ys[i + 1];
+            out[k] = y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+        }
+    }
+
+    /**
+     * Вычисляет упорядоченный пакет сериями аргументов, попадающих в один отрезок (см. InterpolationKernel)
+     */
+    private static void interpolateRuns(double[] xs, double[] ys, int count, double[] args, double[] out) {
+        double left = xs[0];
+        double right = xs[count - 1];
+        int k = 0;
+        while (k < args.length && args[k] < left) {
+            out[k++] = Double.NaN;
+        }
+        int i = 0;
+        while (k < args.length && args[k] <= right) {
+            double x = args[k];
+            int steps = 0;
+            while (i < count - 2 && xs[i + 1] <= x && steps < WALK_LIMIT) {
+                i++;
+                steps++;
+            }
+            if (i < count - 2 && xs[i + 1] <= x) {
+                i = findSegment(xs, count, x);
+            }
+            int end = InterpolationKernel.runEnd(args, k, xs[i + 1], i == count - 2);
+            InterpolationKernel.lerp(args, k, end, xs[i], xs[i + 1], ys[i], ys[i + 1], out);
+            k = end;
+        }
+        while (k < args.length) {
+            out[k++] = Double.NaN;
+        }
+    }
+
+    /**
+     * @return true, если элементы массива не убывают (массив с NaN упорядоченным не считается)
+     */
+    static boolean isAscending(double[] values) {
+        for (int i = 1; i < values.length; i++) {
+            if (!(values[i - 1] <= values[i])) {
+                return false;
+            }
+        }
+        return values.length == 0 || !Double.isNaN(values[0]);
+    }
+
+    /**
+     * Порядок обхода аргументов по возрастанию для реализаций, которым нужен последовательный проход
+     * @param values аргументы
+     * @return null, если аргументы уже упорядочены, иначе перестановка индексов по возрастанию (NaN в конце)
+     */
+    static int[] ascendingOrder(double[] values) {
+        if (isAscending(values)) {
+            return null;
+        }
+        Integer[] order = new Integer[values.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+
+        int[] result = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            result[i] = order[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,479 @@
+package functions;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Табулированная функция на списке с пропусками (skip list).
+ * Нижний уровень - обычный двусвязный список точек, верхние уровни - «экспресс-линии»,
+ * которые помнят, через сколько узлов нижнего уровня они перескакивают.
+ * Благодаря этому поиск по координате X и по индексу работают за ожидаемое O(log n),
+ * а вставка и удаление после поиска перевязывают ожидаемое O(1) ссылок.
+ */
+public class SkipListTabulatedFunction implements TabulatedFunction {
+
+    private static final int MAX_LEVEL = 32;
+
+    /**
+     * Узел списка. next[i] - следующий узел на уровне i,
+     * width[i] - сколько шагов по нижнему уровню заменяет переход по next[i]
+     */
+    private static class SkipNode {
+        double x;
+        double y;
+        SkipNode[] next;
+        int[] width;
+        SkipNode prev;
+
+        SkipNode(double x, double y, int level) {
+            this.x = x;
+            this.y = y;
+            this.next = new SkipNode[level];
+            this.width = new int[level];
+        }
+    }
+
+    private transient SkipNode head = new SkipNode(Double.NaN, Double.NaN, MAX_LEVEL);
+    private transient SkipNode tail;
+    private transient int level = 1;
+    private int count;
+    private final transient Random random = new Random();
+
+    public SkipListTabulatedFunction() {}
+
+    /**
+     * Создает табличную функцию с равномерно распределенными точками
+     * @param leftX левая граница области определения
+     * @param rightX правая граница области определения
+     * @param pointsCount количество точек
+     */
+    public SkipListTabulatedFunction(double leftX, double rightX, int pointsCount)
+            throws IllegalArgumentException {
+        if (leftX >= rightX)
+            throw new IllegalArgumentException("Left border must be less than right border!");
+        if (pointsCount < 2)
+            throw new IllegalArgumentException("Count of points must be at least 2!");
+
+        double step = (rightX - leftX) / (pointsCount - 1);
+        for (int i = 0; i < pointsCount; i++) {
+            appendNode(leftX + i * step, 0);
+        }
+    }
+
+    /**
+     * Создает табличную функцию с равномерно распределенными точками и заданными значениями функции
+     * @param leftX левая граница области определения
+     * @param rightX правая граница области определения
+     * @param values массив значений функции в точках
+     */
+    public SkipListTabulatedFunction(double leftX, double rightX, double[] values)
+            throws IllegalArgumentException {
+        if (leftX >= rightX)
+            throw new IllegalArgumentException("Left border must be less than right border!");
+        if (values == null || values.length < 2)
+            throw new IllegalArgumentException("Count of points must be at least 2!");
+
+        double step = (rightX - leftX) / (values.length - 1);
+        for (int i = 0; i < values.length; i++) {
+            appendNode(leftX + i * step, values[i]);
+        }
+    }
+
+    /**
+     * Создает табличную функцию по массиву точек
+     * @param points массив точек, упорядоченный по X
+     */
+    public SkipListTabulatedFunction(FunctionPoint[] points) throws IllegalArgumentException {
+        if (points == null) throw new IllegalArgumentException("Points array cannot be null");
+        if (points.length < 2) throw new IllegalArgumentException("Massive must be greater than 2!");
+
+        for (int i = 1; i < points.length; i++) {
+            if (points[i].getX() <= points[i-1].getX()) {
+                throw new IllegalArgumentException("IllegalArgumentException");
+            }
+        }
+
+        for (int i = 0; i < points.length; i++) {
+            appendNode(points[i].getX(), points[i].getY());
+        }
+    }
+
+    /**
+     * Случайная высота узла: уровень i+1 получает половина узлов уровня i
+     */
+    private int randomLevel() {
+        int lvl = 1 + Integer.numberOfTrailingZeros(random.nextInt());
+        return Math.min(lvl, MAX_LEVEL);
+    }
+
+    /**
+     * Добавляет узел в конец списка (x больше всех имеющихся)
+     */
+    private void appendNode(double x, double y) {
+        SkipNode[] update = new SkipNode[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+
+        // Последний узел каждого уровня ищется проходом по экспресс-линиям
+        SkipNode node = head;
+        int pos = 0;
+        for (int lvl = level - 1; lvl >= 0; lvl--) {
+            while (node.next[lvl] != null) {
+                pos += node.width[lvl];
+                node = node.next[lvl];
+            }
+            update[lvl] = node;
+            rank[lvl] = pos;
+        }
+        link(x, y, update, rank);
+    }
+
+    /**
+     * Вставляет новый узел после update[0].
+     * update[i] - последний узел уровня i перед местом вставки, rank[i] - его позиция (голова - 0)
+     */
+    private void link(double x, double y, SkipNode[] update, int[] rank) {
+        int newLevel = randomLevel();
+        if (newLevel > level) {
+            for (int lvl = level; lvl < newLevel; lvl++) {
+                update[lvl] = head;
+                rank[lvl] = 0;
+                head.width[lvl] = count;
+            }
+            level = newLevel;
+        }
+
+        SkipNode node = new SkipNode(x, y, newLevel);
+        for (int lvl = 0; lvl < newLevel; lvl++) {
+            node.next[lvl] = update[lvl].next[lvl];
+            update[lvl].next[lvl] = node;
+            node.width[lvl] = update[lvl].width[lvl] - (rank[0] - rank[lvl]);
+            update[lvl].width[lvl] = rank[0] - rank[lvl] + 1;
+        }
+        // Линии выше нового узла теперь перескакивают на один узел больше
+        for (int lvl = newLevel; lvl < level; lvl++) {
+            update[lvl].width[lvl]++;
+        }
+
+        node.prev = update[0] == head ? null : update[0];
+        if (node.next[0] != null) {
+            node.next[0].prev = node;
+        } else {
+            tail = node;
+        }
+        count++;
+    }
+
+    /**
+     * Удаляет узел, следующий на нижнем уровне за update[0]
+     */
+    private void unlink(SkipNode node, SkipNode[] update) {
+        for (int lvl = 0; lvl < level; lvl++) {
+            if (update[lvl].next[lvl] == node) {
+                update[lvl].width[lvl] += node.width[lvl] - 1;
+                update[lvl].next[lvl] = node.next[lvl];
+            } else {
+                update[lvl].width[lvl]--;
+            }
+        }
+
+        if (node.next[0] != null) {
+            node.next[0].prev = node.prev;
+        } else {
+            tail = node.prev;
+        }
+        while (level > 1 && head.next[level - 1] == null) {
+            level--;
+        }
+        count--;
+    }
+
+    /**
+     * Находит узел по индексу, спускаясь по экспресс-линиям
+     */
+    private SkipNode getNodeByIndex(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (index < 0 || index >= count) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+
+        int target = index + 1; // позиция 0 занимает голова
+        SkipNode node = head;
+        int pos = 0;
+        for (int lvl = level - 1; lvl >= 0; lvl--) {
+            while (node.next[lvl] != null && pos + node.width[lvl] <= target) {
+                pos += node.width[lvl];
+                node = node.next[lvl];
+            }
+            if (pos == target) break;
+        }
+        return node;
+    }
+
+    /**
+     * Находит последний узел с координатой не больше x
+     * @return найденный узел или голову списка, если все точки правее x
+     */
+    private SkipNode floorNode(double x) {
+        SkipNode node = head;
+        for (int lvl = level - 1; lvl >= 0; lvl--) {
+            while (node.next[lvl] != null && node.next[lvl].x <= x) {
+                node = node.next[lvl];
+            }
+        }
+        return node;
+    }
+
+    public double getLeftDomainBorder() {
+        return head.next[0].x;
+    }
+
+    public double getRightDomainBorder() {
+        return tail.x;
+    }
+
+    public double getFunctionValue(double x) {
+        if (!(x >= getLeftDomainBorder() && x <= getRightDomainBorder())) {
+            return Double.NaN;
+        }
+
+        SkipNode left = floorNode(x);
+        if (left == tail) {
+            return tail.y;
+        }
+        SkipNode right = left.next[0];
+
+        // Формула линейной интерполяции
+        return left.y + (right.y - left.y) * (x - left.x) / (right.x - left.x);
+    }
+
+    public int getPointsCount() {
+        return count;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        SkipNode node = getNodeByIndex(index);
+        return new FunctionPoint(node.x, node.y);
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Not be == null!");
+        }
+        SkipNode node = getNodeByIndex(index);
+        checkOrder(node, point.getX());
+        node.x = point.getX();
+        node.y = point.getY();
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        return getNodeByIndex(index).x;
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        SkipNode node = getNodeByIndex(index);
+        checkOrder(node, x);
+        node.x = x;
+    }
+
+    /**
+     * Новая координата должна оставаться строго между соседями, тогда порядок списка не меняется
+     */
+    private void checkOrder(SkipNode node, double x) throws InappropriateFunctionPointException {
+        if ((node.prev != null && x <= node.prev.x) ||
+                (node.next[0] != null && x >= node.next[0].x)) {
+            throw new InappropriateFunctionPointException();
+        }
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        return getNodeByIndex(index).y;
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        getNodeByIndex(index).y = y;
+    }
+
+    public void deletePoint(int index)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (index < 0 || index >= count) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (count < 3) {
+            throw new IllegalStateException("Cannot delete point: minimum 3 points required");
+        }
+
+        // Ищем на каждом уровне последний узел перед удаляемым
+        SkipNode[] update = new SkipNode[MAX_LEVEL];
+        int target = index + 1;
+        SkipNode node = head;
+        int pos = 0;
+        for (int lvl = level - 1; lvl >= 0; lvl--) {
+            while (node.next[lvl] != null && pos + node.width[lvl] < target) {
+                pos += node.width[lvl];
+                node = node.next[lvl];
+            }
+            update[lvl] = node;
+        }
+        unlink(node.next[0], update);
+    }
+
+    public void addPoint(FunctionPoint point) throws InappropriateFunctionPointException {
+        if (point == null) {
+            throw new IllegalArgumentException("Point cannot be null");
+        }
+        double x = point.getX();
+
+        SkipNode[] update = new SkipNode[MAX_LEVEL];
+        int[] rank = new int[MAX_LEVEL];
+        SkipNode node = head;
+        int pos = 0;
+        for (int lvl = level - 1; lvl >= 0; lvl--) {
+            while (node.next[lvl] != null && node.next[lvl].x < x) {
+                pos += node.width[lvl];
+                node = node.next[lvl];
+            }
+            update[lvl] = node;
+            rank[lvl] = pos;
+        }
+
+        // Проверка на дубликат среди соседей места вставки
+        if ((node != head && Math.abs(node.x - x) < 1e-10) ||
+                (node.next[0] != null && Math.abs(node.next[0].x - x) < 1e-10)) {
+            throw new InappropriateFunctionPointException();
+        }
+
+        link(x, point.getY(), update, rank);
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        out.writeInt(count);
+
+        double[] xValues = new double[count];
+        double[] yValues = new double[count];
+        SkipNode current = head.next[0];
+        for (int i = 0; i < count; i++) {
+            xValues[i] = current.x;
+            yValues[i] = current.y;
+            current = current.next[0];
+        }
+
+        out.writeObject(xValues);
+        out.writeObject(yValues);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int pointsCount = in.readInt();
+        double[] xValues = (double[]) in.readObject();
+        double[] yValues = (double[]) in.readObject();
+
+        head = new SkipNode(Double.NaN, Double.NaN, MAX_LEVEL);
+        tail = null;
+        level = 1;
+        count = 0;
+        for (int i = 0; i < pointsCount; i++) {
+            appendNode(xValues[i], yValues[i]);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (SkipNode node = head.next[0]; node != null; node = node.next[0]) {
+            sb.append("(").append(node.x).append("; ").append(node.y).append(")");
+            if (node != tail) {
+                sb.append(", ");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || !(obj instanceof TabulatedFunction)) return false;
+
+        TabulatedFunction other = (TabulatedFunction) obj;
+        if (this.count != other.getPointsCount()) return false;
+
+        // Обход другой функции итератором не зависит от стоимости доступа по индексу
+        Iterator<FunctionPoint> it = other.iterator();
+        for (SkipNode node = head.next[0]; node != null; node = node.next[0]) {
+            FunctionPoint p = it.next();
+            if (Double.compare(node.x, p.getX()) != 0 || Double.compare(node.y, p.getY()) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // Совпадает с хэшем остальных реализаций с теми же точками
+        int hash = 17;
+        for (SkipNode node = head.next[0]; node != null; node = node.next[0]) {
+            hash = 31 * hash + (Double.hashCode(node.x) ^ Double.hashCode(node.y));
+        }
+        return hash;
+    }
+
+    @Override
+    public Object clone() {
+        SkipListTabulatedFunction copy = new SkipListTabulatedFunction();
+        for (SkipNode node = head.next[0]; node != null; node = node.next[0]) {
+            copy.appendNode(node.x, node.y);
+        }
+        return copy;
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        return new Iterator<FunctionPoint>() {
+            private SkipNode curr = head.next[0];
+            @Override
+            public boolean hasNext() {
+                return curr != null;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("Elements is canceled!");
+                }
+                FunctionPoint p = new FunctionPoint(curr.x, curr.y);
+                curr = curr.next[0];
+                return p;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("You cannot do remove operation!");
+            }
+        };
+    }
+
+    public static class SkipListTabulatedFunctionFactory implements TabulatedFunctionFactory {
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) throws IllegalArgumentException {
+            return new SkipListTabulatedFunction(leftX, rightX, pointsCount);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values) throws IllegalArgumentException {
+            return new SkipListTabulatedFunction(leftX, rightX, values);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(FunctionPoint[] points) throws IllegalArgumentException {
+            return new SkipListTabulatedFunction(points);
+        }
+    }
+}
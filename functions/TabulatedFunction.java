@@ -2,6 +2,7 @@ package functions;
 
 
 import java.io.Externalizable;
+import java.util.function.Predicate;
 
 public interface TabulatedFunction extends Function, Cloneable, Externalizable, Iterable<FunctionPoint> {
 
@@ -60,12 +61,88 @@ public interface TabulatedFunction extends Function, Cloneable, Externalizable,
      */
     void deletePoint(int index) throws FunctionPointIndexOutOfBoundsException, IllegalStateException;
 
+    /**
+     * Удаляет точки с индексами от from включительно до to не включительно.
+     * В функции должно остаться не меньше двух точек.
+     * Реализация по умолчанию удаляет точки по одной, реализации на массивах и списках - за один проход
+     * @param from индекс первой удаляемой точки
+     * @param to индекс точки, следующей за последней удаляемой
+     */
+    default void deleteRange(int from, int to) throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        int count = getPointsCount();
+        if (from < 0 || to > count || from > to) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (count - (to - from) < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+        for (int i = to - 1; i >= from; i--) {
+            deletePoint(i);
+        }
+    }
+
+    /**
+     * Удаляет все точки, удовлетворяющие условию. Условие получает копии точек
+     * и вызывается ровно один раз для каждой точки по порядку.
+     * Если после удаления осталось бы меньше двух точек, функция не изменяется
+     * @param filter условие удаления
+     * @return true, если была удалена хотя бы одна точка
+     */
+    default boolean removeIf(Predicate<? super FunctionPoint> filter) throws IllegalStateException {
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+        int count = getPointsCount();
+        boolean[] removed = new boolean[count];
+        int removedCount = 0;
+        int i = 0;
+        for (FunctionPoint point : this) {
+            if (filter.test(point)) {
+                removed[i] = true;
+                removedCount++;
+            }
+            i++;
+        }
+        if (count - removedCount < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+        for (i = count - 1; i >= 0; i--) {
+            if (removed[i]) deletePoint(i);
+        }
+        return removedCount > 0;
+    }
+
     /**
      * Добавляет точку по индексу
      * @param point новая точка
      */
     void addPoint(FunctionPoint point) throws InappropriateFunctionPointException;
 
+    /**
+     * Добавляет пакет точек. Пакет может быть не упорядочен; если хотя бы одна точка
+     * совпадает с другой точкой пакета или таблицы, функция не изменяется
+     * @param points новые точки
+     */
+    default void addPoints(FunctionPoint[] points) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(points);
+        addPoints(batch.xs, batch.ys);
+    }
+
+    /**
+     * Добавляет пакет точек, заданный массивами координат.
+     * Реализация по умолчанию вставляет точки по одной, реализации на массивах и списках
+     * сливают пакет с таблицей за один проход
+     * @param xs координаты X новых точек
+     * @param ys значения функции в новых точках
+     */
+    default void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        PointBatch batch = PointBatch.of(xs, ys);
+        batch.checkDisjoint(this::getPointX, getPointsCount());
+        for (int i = 0; i < batch.length; i++) {
+            addPoint(new FunctionPoint(batch.xs[i], batch.ys[i]));
+        }
+    }
+
     /**
      * Клонирует объект
      * @return клон объекта
@@ -2,10 +2,17 @@ package functions;
 
 import java.io.*;
 import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
 
 public class TabulatedFunctions {
 
-    private static TabulatedFunctionFactory tff = new ArrayTabulatedFunction.ArrayTabulatedFunctionFactory();
+    // По умолчанию равномерная функция: tabulate всегда строит равномерную сетку
+    private static TabulatedFunctionFactory tff = new UniformTabulatedFunction.UniformTabulatedFunctionFactory();
 
     public static void setTabulatedFunctionFactory(TabulatedFunctionFactory factory) {
         TabulatedFunctions.tff = factory;
@@ -120,11 +127,7 @@ public class TabulatedFunctions {
         TabulatedFunction tabulatedFunc = createTabulatedFunction(fClass, leftX, rightX, pointsCount);
 
         // Заполнение значений функции
-        for (int i = 0; i < pointsCount; i++) {
-            double x = tabulatedFunc.getPointX(i);
-            double y = function.getFunctionValue(x);
-            tabulatedFunc.setPointY(i, y);
-        }
+        fillValues(tabulatedFunc, function);
 
         return tabulatedFunc;
     }
@@ -224,15 +227,28 @@ public class TabulatedFunctions {
         TabulatedFunction tabulatedFunc = TabulatedFunctions.tff.createTabulatedFunction(leftX, rightX, pointsCount);
 
         // Заполнение значений функции
-        for (int i = 0; i < pointsCount; i++) {
-            double x = tabulatedFunc.getPointX(i);
-            double y = function.getFunctionValue(x);
-            tabulatedFunc.setPointY(i, y);
-        }
+        fillValues(tabulatedFunc, function);
 
         return tabulatedFunc;
     }
 
+    /**
+     * Заполняет значения Y табулированной функции одним пакетным вычислением
+     * @param tabulatedFunc табулированная функция с заданными координатами X
+     * @param function исходная функция
+     */
+    private static void fillValues(TabulatedFunction tabulatedFunc, Function function) {
+        int pointsCount = tabulatedFunc.getPointsCount();
+        double[] values = new double[pointsCount];
+        for (int i = 0; i < pointsCount; i++) {
+            values[i] = tabulatedFunc.getPointX(i);
+        }
+        function.getFunctionValues(values, values);
+        for (int i = 0; i < pointsCount; i++) {
+            tabulatedFunc.setPointY(i, values[i]);
+        }
+    }
+
     /**
      * Записывает табулированную функцию
      * @param function функция
@@ -366,4 +382,81 @@ public class TabulatedFunctions {
             throw new IllegalArgumentException(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Записывает функцию в двоичный файл, который можно открыть без копирования через mapTabulatedFunction.
+     * Если точки лежат на равномерной сетке, координаты X не записываются.
+     * Формат описан в MappedTabulatedFunction, порядок байтов - родной для платформы
+     * @param function функция
+     * @param file путь к файлу (перезаписывается)
+     * @throws IOException при ошибке записи
+     */
+    public static void writeBinaryTabulatedFunction(TabulatedFunction function, Path file) throws IOException {
+        int pCount = function.getPointsCount();
+        double leftX = function.getPointX(0);
+        double step;
+        if (function instanceof UniformTabulatedFunction && ((UniformTabulatedFunction) function).isUniform()) {
+            step = ((UniformTabulatedFunction) function).getStep();
+        } else {
+            step = (function.getPointX(pCount - 1) - leftX) / (pCount - 1);
+        }
+
+        // Сетка равномерная, только если каждая координата в точности восстанавливается по шагу
+        boolean uniform = step > 0;
+        int i = 0;
+        for (Iterator<FunctionPoint> it = function.iterator(); uniform && it.hasNext(); i++) {
+            uniform = it.next().getX() == leftX + i * step;
+        }
+
+        ByteOrder order = ByteOrder.nativeOrder();
+        int flags = (uniform ? MappedTabulatedFunction.FLAG_UNIFORM : 0)
+                | (order == ByteOrder.LITTLE_ENDIAN ? MappedTabulatedFunction.FLAG_LITTLE_ENDIAN : 0);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16).order(order);
+            buffer.putInt(MappedTabulatedFunction.MAGIC);
+            buffer.putInt(MappedTabulatedFunction.VERSION);
+            buffer.putInt(flags);
+            buffer.putInt(0);
+            buffer.putLong(pCount);
+            buffer.putDouble(uniform ? leftX : 0);
+            buffer.putDouble(uniform ? step : 0);
+
+            if (!uniform) {
+                for (FunctionPoint point : function) {
+                    if (!buffer.hasRemaining()) drain(channel, buffer);
+                    buffer.putDouble(point.getX());
+                }
+            }
+            for (FunctionPoint point : function) {
+                if (!buffer.hasRemaining()) drain(channel, buffer);
+                buffer.putDouble(point.getY());
+            }
+            drain(channel, buffer);
+        } catch (IOException e) {
+            throw new IOException("Error writing tabulated function to " + file, e);
+        }
+    }
+
+    /**
+     * Записывает накопленное содержимое буфера в канал и очищает буфер
+     */
+    private static void drain(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Открывает функцию, записанную writeBinaryTabulatedFunction, отображая файл в память
+     * @param file путь к файлу
+     * @return функция только для чтения, которую нужно закрыть после использования
+     * @throws IOException если файл не читается или имеет неверный формат
+     */
+    public static MappedTabulatedFunction mapTabulatedFunction(Path file) throws IOException {
+        return new MappedTabulatedFunction(file);
+    }
+}
@@ -0,0 +1,545 @@
+package functions;
+
+import java.io.IOException;
+import java.io.ObjectInput;
+import java.io.ObjectOutput;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * Табулированная функция на равномерной сетке.
+ * Хранит только левую границу, шаг и массив значений: координата X точки с номером i
+ * вычисляется как leftX + i * step, а отрезок для интерполяции находится делением за O(1).
+ * Если addPoint/setPointX/deletePoint нарушают равномерность, функция один раз переходит
+ * к явному хранению координат в DoubleArrayTabulatedFunction и дальше работает через него.
+ */
+public class UniformTabulatedFunction implements TabulatedFunction {
+    private double leftX;
+    private double step;
+    private double[] yValues;
+    private int amountOfElements;
+
+    // Явное представление, null пока сетка равномерная
+    private DoubleArrayTabulatedFunction explicit;
+
+    public UniformTabulatedFunction() {}
+
+    /**
+     * Создает табличную функцию с равномерно распределенными точками
+     * @param leftX левая граница области определения
+     * @param rightX правая граница области определения
+     * @param pointsCount количество точек
+     */
+    public UniformTabulatedFunction(double leftX, double rightX, int pointsCount)
+            throws IllegalArgumentException {
+        if (leftX >= rightX)
+            throw new IllegalArgumentException("Left border must be less than right border!");
+        if (pointsCount < 2)
+            throw new IllegalArgumentException("Count of points must be at least 2!");
+
+        this.leftX = leftX;
+        this.step = (rightX - leftX) / (pointsCount - 1);
+        this.amountOfElements = pointsCount;
+        this.yValues = new double[pointsCount];
+    }
+
+    /**
+     * Создает табличную функцию с равномерно распределенными точками и заданными значениями функции
+     * @param leftX левая граница области определения
+     * @param rightX правая граница области определения
+     * @param values массив значений функции в точках
+     */
+    public UniformTabulatedFunction(double leftX, double rightX, double[] values)
+            throws IllegalArgumentException {
+        if (leftX >= rightX)
+            throw new IllegalArgumentException("Left border must be less than right border!");
+        if (values.length < 2)
+            throw new IllegalArgumentException("Count of points must be at least 2!");
+
+        this.leftX = leftX;
+        this.step = (rightX - leftX) / (values.length - 1);
+        this.amountOfElements = values.length;
+        this.yValues = Arrays.copyOf(values, values.length);
+    }
+
+    /**
+     * Создает табличную функцию по массиву точек.
+     * Если точки лежат на равномерной сетке, хранятся только значения, иначе координаты хранятся явно.
+     * @param massiveOfPoints массив точек
+     */
+    public UniformTabulatedFunction(FunctionPoint[] massiveOfPoints) throws IllegalArgumentException {
+        int count = massiveOfPoints.length;
+        if (count < 2)
+            throw new IllegalArgumentException("Massive length must be greater than 2!");
+
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = massiveOfPoints[i].getX();
+            ys[i] = massiveOfPoints[i].getY();
+        }
+        init(xs, ys, count);
+    }
+
+    /**
+     * Заполняет поля по массивам координат, выбирая представление
+     */
+    private void init(double[] xs, double[] ys, int count) {
+        if (isUniformGrid(xs, count)) {
+            this.leftX = xs[0];
+            this.step = (xs[count - 1] - xs[0]) / (count - 1);
+            this.amountOfElements = count;
+            this.yValues = ys;
+            this.explicit = null;
+        } else {
+            this.explicit = new DoubleArrayTabulatedFunction(xs, ys);
+            this.yValues = null;
+        }
+    }
+
+    /**
+     * Проверяет, что координаты в точности совпадают с теми, что вычислил бы конструктор по границам
+     */
+    private static boolean isUniformGrid(double[] xs, int count) {
+        double distance = (xs[count - 1] - xs[0]) / (count - 1);
+        if (!(distance > 0)) return false;
+        for (int i = 1; i < count; i++) {
+            if (xs[i] != xs[0] + i * distance) return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return true, если координаты не хранятся, а вычисляются по шагу
+     */
+    public boolean isUniform() {
+        return explicit == null;
+    }
+
+    /**
+     * @return шаг равномерной сетки (имеет смысл, только пока isUniform() возвращает true)
+     */
+    double getStep() {
+        return step;
+    }
+
+    private double x(int index) {
+        return leftX + index * step;
+    }
+
+    /**
+     * Переходит к явному хранению координат
+     */
+    private void materialize() {
+        double[] xs = new double[amountOfElements];
+        for (int i = 0; i < amountOfElements; i++) {
+            xs[i] = x(i);
+        }
+        explicit = new DoubleArrayTabulatedFunction(xs, Arrays.copyOf(yValues, amountOfElements));
+        yValues = null;
+    }
+
+    public double getLeftDomainBorder() {
+        if (explicit != null) return explicit.getLeftDomainBorder();
+        return leftX;
+    }
+
+    public double getRightDomainBorder() {
+        if (explicit != null) return explicit.getRightDomainBorder();
+        return x(amountOfElements - 1);
+    }
+
+    public double getFunctionValue(double x) {
+        if (explicit != null) return explicit.getFunctionValue(x);
+
+        if (!(x >= leftX && x <= x(amountOfElements - 1))) {
+            return Double.NaN;
+        }
+
+        // Номер отрезка вычисляется делением, затем поправляется на ошибку округления
+        int i = (int) ((x - leftX) / step);
+        if (i > amountOfElements - 2) i = amountOfElements - 2;
+        if (i > 0 && x < x(i)) i--;
+        else if (i < amountOfElements - 2 && x >= x(i + 1)) i++;
+
+        double x1 = x(i);
+        double x2 = x(i + 1);
+        double y1 = yValues[i];
+        double y2 = yValues[i + 1];
+        return y1 + (y2 - y1) * (x - x1) / (x2 - x1);
+    }
+
+    /**
+     * На равномерной сетке отрезок находится за O(1) и без пакета, поэтому
+     * пакетное вычисление отличается от поточечного только для явного представления
+     */
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (explicit != null) {
+            explicit.getFunctionValues(xs, out);
+        } else {
+            TabulatedFunction.super.getFunctionValues(xs, out);
+        }
+    }
+
+    public int getPointsCount() {
+        if (explicit != null) return explicit.getPointsCount();
+        return amountOfElements;
+    }
+
+    public FunctionPoint getPoint(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (explicit != null) return explicit.getPoint(index);
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return new FunctionPoint(x(index), yValues[index]);
+    }
+
+    public void setPoint(int index, FunctionPoint point)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (explicit != null) {
+            explicit.setPoint(index, point);
+            return;
+        }
+        if (index < 0 || index >= amountOfElements || point == null)
+            throw new FunctionPointIndexOutOfBoundsException();
+        if ((index > 0 && point.getX() <= x(index - 1)) ||
+                (index < amountOfElements - 1 && point.getX() >= x(index + 1)))
+            throw new InappropriateFunctionPointException();
+
+        if (point.getX() == x(index)) {
+            yValues[index] = point.getY();
+        } else {
+            materialize();
+            explicit.setPoint(index, point);
+        }
+    }
+
+    public double getPointX(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (explicit != null) return explicit.getPointX(index);
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return x(index);
+    }
+
+    public void setPointX(int index, double x)
+            throws FunctionPointIndexOutOfBoundsException, InappropriateFunctionPointException {
+        if (explicit != null) {
+            explicit.setPointX(index, x);
+            return;
+        }
+        if (index < 0 || index >= amountOfElements) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if ((index > 0 && x <= x(index - 1)) ||
+                (index < amountOfElements - 1 && x >= x(index + 1))) {
+            throw new InappropriateFunctionPointException();
+        }
+
+        if (x != x(index)) {
+            materialize();
+            explicit.setPointX(index, x);
+        }
+    }
+
+    public double getPointY(int index) throws FunctionPointIndexOutOfBoundsException {
+        if (explicit != null) return explicit.getPointY(index);
+        if (index < 0 || index >= amountOfElements)
+            throw new FunctionPointIndexOutOfBoundsException();
+        return yValues[index];
+    }
+
+    public void setPointY(int index, double y) throws FunctionPointIndexOutOfBoundsException {
+        if (explicit != null) {
+            explicit.setPointY(index, y);
+            return;
+        }
+        if (index < 0 || index >= amountOfElements) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        yValues[index] = y;
+    }
+
+    public void deletePoint(int index)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (explicit != null) {
+            explicit.deletePoint(index);
+            return;
+        }
+        if (index < 0 || index >= amountOfElements) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (amountOfElements < 3) {
+            throw new IllegalStateException("Cannot delete point: minimum 3 points required");
+        }
+
+        // Удаление последней точки сетку не нарушает
+        if (index == amountOfElements - 1) {
+            amountOfElements--;
+        } else {
+            materialize();
+            explicit.deletePoint(index);
+        }
+    }
+
+    /**
+     * Удаляет точки с индексами [from, to). Удаление хвоста сетку не нарушает
+     * @param from индекс первой удаляемой точки
+     * @param to индекс точки, следующей за последней удаляемой
+     */
+    @Override
+    public void deleteRange(int from, int to)
+            throws FunctionPointIndexOutOfBoundsException, IllegalStateException {
+        if (explicit != null) {
+            explicit.deleteRange(from, to);
+            return;
+        }
+        if (from < 0 || to > amountOfElements || from > to) {
+            throw new FunctionPointIndexOutOfBoundsException();
+        }
+        if (amountOfElements - (to - from) < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+
+        if (to == amountOfElements) {
+            amountOfElements = from;
+        } else if (from < to) {
+            materialize();
+            explicit.deleteRange(from, to);
+        }
+    }
+
+    /**
+     * Удаляет точки, удовлетворяющие условию. Если удаляется только хвост, сетка остается равномерной
+     * @param filter условие удаления (получает копии точек)
+     * @return true, если была удалена хотя бы одна точка
+     */
+    @Override
+    public boolean removeIf(Predicate<? super FunctionPoint> filter) throws IllegalStateException {
+        if (explicit != null) return explicit.removeIf(filter);
+        if (filter == null) {
+            throw new IllegalArgumentException("Filter cannot be null");
+        }
+
+        boolean[] removed = new boolean[amountOfElements];
+        int removedCount = 0;
+        int tailStart = amountOfElements; // начало удаляемого хвоста
+        for (int i = 0; i < amountOfElements; i++) {
+            if (filter.test(new FunctionPoint(x(i), yValues[i]))) {
+                removed[i] = true;
+                removedCount++;
+                if (tailStart == amountOfElements) tailStart = i;
+            } else {
+                tailStart = amountOfElements;
+            }
+        }
+        if (amountOfElements - removedCount < 2) {
+            throw new IllegalStateException("Cannot delete points: at least 2 points must remain");
+        }
+        if (removedCount == 0) {
+            return false;
+        }
+
+        if (removedCount == amountOfElements - tailStart) {
+            amountOfElements = tailStart;
+        } else {
+            materialize();
+            explicit.compact(removed);
+        }
+        return true;
+    }
+
+    public void addPoint(FunctionPoint point)
+            throws InappropriateFunctionPointException, IllegalArgumentException {
+        if (explicit != null) {
+            explicit.addPoint(point);
+            return;
+        }
+        if (point == null) {
+            throw new IllegalArgumentException("Point cannot be null");
+        }
+
+        // Точка, продолжающая сетку вправо, сохраняет равномерность
+        if (point.getX() == x(amountOfElements)) {
+            if (amountOfElements == yValues.length) {
+                yValues = Arrays.copyOf(yValues, amountOfElements + (amountOfElements >> 1) + 1);
+            }
+            yValues[amountOfElements++] = point.getY();
+            return;
+        }
+
+        // Дубликаты отсекаем до перехода к явному хранению
+        int i = (int) Math.round((point.getX() - leftX) / step);
+        if (i >= 0 && i < amountOfElements && Math.abs(x(i) - point.getX()) < 1e-10) {
+            throw new InappropriateFunctionPointException();
+        }
+        materialize();
+        explicit.addPoint(point);
+    }
+
+    /**
+     * Добавляет пакет точек. Пакет проверяется до перехода к явному хранению, поэтому пустой
+     * или некорректный пакет сохраняет равномерную сетку; пакет, продолжающий сетку вправо, тоже
+     */
+    @Override
+    public void addPoints(double[] xs, double[] ys) throws InappropriateFunctionPointException {
+        if (explicit != null) {
+            explicit.addPoints(xs, ys);
+            return;
+        }
+        PointBatch batch = PointBatch.of(xs, ys);
+        batch.checkDisjoint(this::x, amountOfElements);
+        if (batch.length == 0) {
+            return;
+        }
+        if (continuesGrid(batch)) {
+            int count = amountOfElements + batch.length;
+            if (count > yValues.length) {
+                yValues = Arrays.copyOf(yValues, Math.max(count, amountOfElements + (amountOfElements >> 1) + 1));
+            }
+            System.arraycopy(batch.ys, 0, yValues, amountOfElements, batch.length);
+            amountOfElements = count;
+            return;
+        }
+        materialize();
+        explicit.addPoints(batch.xs, batch.ys);
+    }
+
+    /**
+     * Совпадают ли координаты упорядоченного пакета со следующими узлами сетки
+     */
+    private boolean continuesGrid(PointBatch batch) {
+        for (int j = 0; j < batch.length; j++) {
+            if (batch.xs[j] != x(amountOfElements + j)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void writeExternal(ObjectOutput out) throws IOException {
+        // Формат совпадает с ArrayTabulatedFunction: количество точек и два массива координат
+        int count = getPointsCount();
+        double[] xs = new double[count];
+        double[] ys = new double[count];
+        for (int i = 0; i < count; i++) {
+            xs[i] = getPointX(i);
+            ys[i] = getPointY(i);
+        }
+        out.writeInt(count);
+        out.writeObject(xs);
+        out.writeObject(ys);
+    }
+
+    @Override
+    public void readExternal(ObjectInput in) throws IOException, ClassNotFoundException {
+        int count = in.readInt();
+        double[] xs = (double[]) in.readObject();
+        double[] ys = (double[]) in.readObject();
+        init(xs, ys, count);
+    }
+
+    @Override
+    public String toString() {
+        if (explicit != null) return explicit.toString();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{");
+        for (int i = 0; i < amountOfElements; i++) {
+            sb.append("(").append(x(i)).append("; ").append(yValues[i]).append(")");
+            if (i < amountOfElements - 1) {
+                sb.append(", ");
+            }
+        }
+        sb.append("}");
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (explicit != null) return explicit.equals(obj);
+        if (obj == null || !(obj instanceof TabulatedFunction)) return false;
+
+        TabulatedFunction other = (TabulatedFunction) obj;
+        if (this.amountOfElements != other.getPointsCount()) return false;
+
+        for (int i = 0; i < amountOfElements; i++) {
+            if (Double.compare(x(i), other.getPointX(i)) != 0
+                    || Double.compare(yValues[i], other.getPointY(i)) != 0)
+                return false;
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        if (explicit != null) return explicit.hashCode();
+        // Совпадает с хэшем остальных реализаций с теми же точками
+        int hash = 17;
+        for (int i = 0; i < amountOfElements; i++) {
+            hash = 31 * hash + (Double.hashCode(x(i)) ^ Double.hashCode(yValues[i]));
+        }
+        return hash;
+    }
+
+    @Override
+    public Object clone() {
+        UniformTabulatedFunction copy = new UniformTabulatedFunction();
+        if (explicit != null) {
+            copy.explicit = (DoubleArrayTabulatedFunction) explicit.clone();
+        } else {
+            copy.leftX = leftX;
+            copy.step = step;
+            copy.amountOfElements = amountOfElements;
+            copy.yValues = Arrays.copyOf(yValues, amountOfElements);
+        }
+        return copy;
+    }
+
+    @Override
+    public Iterator<FunctionPoint> iterator() {
+        if (explicit != null) return explicit.iterator();
+        return new Iterator<FunctionPoint>() {
+            private int index;
+            @Override
+            public boolean hasNext() {
+                return index < amountOfElements;
+            }
+
+            @Override
+            public FunctionPoint next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("NoSuchElement!");
+                }
+                FunctionPoint p = new FunctionPoint(x(index), yValues[index]);
+                index++;
+                return p;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException("You cannot do remove operation!");
+            }
+        };
+    }
+
+    public static class UniformTabulatedFunctionFactory implements TabulatedFunctionFactory {
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, int pointsCount) throws IllegalArgumentException {
+            return new UniformTabulatedFunction(leftX, rightX, pointsCount);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(double leftX, double rightX, double[] values) throws IllegalArgumentException {
+            return new UniformTabulatedFunction(leftX, rightX, values);
+        }
+
+        @Override
+        public TabulatedFunction createTabulatedFunction(FunctionPoint[] points) throws IllegalArgumentException {
+            return new UniformTabulatedFunction(points);
+        }
+    }
+}
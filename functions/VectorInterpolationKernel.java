@@ -0,0 +1,42 @@
+package functions;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Интерполяция серии аргументов на одном отрезке средствами Vector API (jdk.incubator.vector).
+ * Класс загружается, только если модуль подключен (--add-modules jdk.incubator.vector при запуске),
+ * см. InterpolationKernel; иначе работает скалярный цикл. Порядок операций в каждой дорожке
+ * тот же, что в поточечной формуле, поэтому результаты совпадают с getFunctionValue.
+ * Исходный код компилируется с --add-modules jdk.incubator.vector
+ */
+final class VectorInterpolationKernel {
+
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    private VectorInterpolationKernel() {}
+
+    /**
+     * @return количество дорожек в векторе; 1 значит, что аппаратных векторов нет
+     */
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * То же, что InterpolationKernel.lerp, целыми векторами и скалярным хвостом
+     */
+    static void lerp(double[] args, int from, int to, double x1, double x2, double y1, double y2, double[] out) {
+        double dx = x2 - x1;
+        double dy = y2 - y1;
+        int k = from;
+        for (int bound = from + SPECIES.loopBound(to - from); k < bound; k += SPECIES.length()) {
+            DoubleVector.fromArray(SPECIES, args, k)
+                    .sub(x1).mul(dy).div(dx).add(y1)
+                    .intoArray(out, k);
+        }
+        for (; k < to; k++) {
+            out[k] = y1 + dy * (args[k] - x1) / dx;
+        }
+    }
+}
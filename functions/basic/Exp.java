@@ -22,4 +22,31 @@ public class Exp implements Function {
     public double getFunctionValue(double x) {
         return Math.exp(x);
     }
+
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.exp(xs[i]);
+        }
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
+    @Override
+    // Функция без параметров: равны все экземпляры одного класса
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        return obj != null && this.getClass() == obj.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().getName().hashCode();
+    }
 }
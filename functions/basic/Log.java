@@ -35,4 +35,36 @@ public class Log implements Function {
         if (x < 0) return Double.NaN;
         return Math.log(x) / Math.log(logBase);
     }
+
+    @Override
+    // Логарифм основания вычисляется один раз на весь пакет
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        double lnBase = Math.log(logBase);
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = x < 0 ? Double.NaN : Math.log(x) / lnBase;
+        }
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
+    @Override
+    // Логарифмы с одинаковым основанием равны
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || this.getClass() != obj.getClass()) return false;
+        Log log = (Log) obj;
+        return Double.compare(logBase, log.logBase) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * getClass().getName().hashCode() + Double.hashCode(logBase);
+    }
 }
@@ -6,4 +6,14 @@ public class Sin extends TrigonometricFunction {
     public double getFunctionValue(double x) {
         return Math.sin(x);
     }
+
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.sin(xs[i]);
+        }
+    }
 }
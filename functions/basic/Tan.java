@@ -5,4 +5,14 @@ public class Tan extends TrigonometricFunction {
     public double getFunctionValue(double x) {
         return Math.tan(x);
     }
+
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.tan(xs[i]);
+        }
+    }
 }
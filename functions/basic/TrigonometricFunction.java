@@ -17,5 +17,21 @@ public abstract class TrigonometricFunction implements Function {
 
     @Override
     public abstract double getFunctionValue(double x);
-}
 
+    @Override
+    public boolean isImmutable() {
+        return true;
+    }
+
+    @Override
+    // Функция без параметров: равны все экземпляры одного класса
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        return obj != null && this.getClass() == obj.getClass();
+    }
+
+    @Override
+    public int hashCode() {
+        return getClass().getName().hashCode();
+    }
+}
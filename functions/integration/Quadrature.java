@@ -0,0 +1,377 @@
+package functions.integration;
+
+import functions.Function;
+
+import java.util.PriorityQueue;
+
+/**
+ * Адаптивное численное интегрирование с заданной точностью.
+ * В отличие от Functions.integral шаг подбирать не нужно: отрезок интегрирования делится там,
+ * где оценка погрешности наибольшая (глобально адаптивная схема), пока суммарная оценка
+ * не станет меньше max(absTolerance, relTolerance * |значение|) или не кончится бюджет вычислений.
+ * На гладких функциях обоим методам нужно на порядки меньше вычислений, чем методу трапеций.
+ */
+public final class Quadrature {
+
+    /**
+     * Неотрицательные узлы Кронрода G7K15 на [-1, 1], по убыванию; остальные симметричны им
+     * относительно нуля (узлы Гаусса - нечетные номера, последний - центр)
+     */
+    private static final double[] KRONROD_NODES = {
+            0.991455371120812639206854697526329,
+            0.949107912342758524526189684047851,
+            0.864864423359769072789712788640926,
+            0.741531185599394439863864773280788,
+            0.586087235467691130294144845693013,
+            0.405845151377397166906606412076961,
+            0.207784955007898467600689403773245,
+            0.000000000000000000000000000000000
+    };
+
+    private static final double[] KRONROD_WEIGHTS = {
+            0.022935322010529224963732008058970,
+            0.063092092629978553290700663189204,
+            0.104790010322250183839876322541518,
+            0.140653259715525918745189590510238,
+            0.169004726639267902826583426598550,
+            0.190350578064785409913256402421014,
+            0.204432940075298892414161999234649,
+            0.209482141084727828012999174891714
+    };
+
+    /**
+     * Веса Гаусса для узлов KRONROD_NODES[1], [3], [5] и центра
+     */
+    private static final double[] GAUSS_WEIGHTS = {
+            0.129484966168869693270611432679082,
+            0.279705391489276667901467771423780,
+            0.381830050505118944950369775488975,
+            0.417959183673469387755102040816327
+    };
+
+    private static final double EPSILON = Math.ulp(1.0);
+
+    /**
+     * Уровни метода Ромберга: не раньше какого проверять точность и наибольший (2^30 + 1 узлов)
+     */
+    private static final int ROMBERG_MIN_LEVEL = 3;
+    private static final int ROMBERG_MAX_LEVEL = 30;
+
+    private Quadrature() {}
+
+    /**
+     * Адаптивный метод Симпсона. Каждый отрезок хранит значения в 5 равноотстоящих узлах,
+     * значение уточняется экстраполяцией Ричардсона, погрешность оценивается как |S2 - S1| / 15.
+     * При делении отрезка его узлы переиспользуются, новых вычислений - 4 на деление
+     * @param f функция
+     * @param leftX левая граница
+     * @param rightX правая граница
+     * @param absTolerance допустимая абсолютная погрешность
+     * @param relTolerance допустимая относительная погрешность
+     * @param maxEvaluations наибольшее количество вычислений функции (не меньше 5)
+     * @return значение, оценка погрешности и количество вычислений
+     * @throws IllegalArgumentException если границы или точность заданы некорректно
+     */
+    public static QuadratureResult adaptiveSimpson(Function f, double leftX, double rightX,
+                                                   double absTolerance, double relTolerance, int maxEvaluations) {
+        checkArguments(f, leftX, rightX, absTolerance, relTolerance);
+        if (maxEvaluations < 5) throw new IllegalArgumentException("Simpson rule needs at least 5 evaluations!");
+        if (leftX == rightX) return new QuadratureResult(0, 0, 0, true);
+
+        double middle = (leftX + rightX) / 2;
+        double[] values = {leftX, (leftX + middle) / 2, middle, (middle + rightX) / 2, rightX};
+        f.getFunctionValues(values, values);
+        Segment whole = new SimpsonSegment(leftX, rightX, values[0], values[1], values[2], values[3], values[4]);
+
+        return refine(f, whole, 5, absTolerance, relTolerance, maxEvaluations);
+    }
+
+    /**
+     * Глобально адаптивный метод Гаусса-Кронрода G7K15 (как QAG из QUADPACK):
+     * на каждом отрезке 15 узлов Кронрода, погрешность оценивается по разности с 7-точечной формулой Гаусса
+     * @param f функция
+     * @param leftX левая граница
+     * @param rightX правая граница
+     * @param absTolerance допустимая абсолютная погрешность
+     * @param relTolerance допустимая относительная погрешность
+     * @param maxEvaluations наибольшее количество вычислений функции (не меньше 15)
+     * @return значение, оценка погрешности и количество вычислений
+     * @throws IllegalArgumentException если границы или точность заданы некорректно
+     */
+    public static QuadratureResult gaussKronrod(Function f, double leftX, double rightX,
+                                                double absTolerance, double relTolerance, int maxEvaluations) {
+        checkArguments(f, leftX, rightX, absTolerance, relTolerance);
+        if (maxEvaluations < 15) throw new IllegalArgumentException("Gauss-Kronrod rule needs at least 15 evaluations!");
+        if (leftX == rightX) return new QuadratureResult(0, 0, 0, true);
+
+        return refine(f, new KronrodSegment(f, leftX, rightX), 15, absTolerance, relTolerance, maxEvaluations);
+    }
+
+    /**
+     * Метод Ромберга: метод трапеций с последовательным делением шага пополам и экстраполяцией Ричардсона.
+     * На каждом уровне вычисляются только новые узлы (середины отрезков предыдущего уровня),
+     * все прежние вычисления входят в сумму трапеций уровня. Погрешность оценивается по разности
+     * диагональных элементов таблицы Ромберга двух последних уровней
+     * @param f функция
+     * @param leftX левая граница
+     * @param rightX правая граница
+     * @param absTolerance допустимая абсолютная погрешность
+     * @param relTolerance допустимая относительная погрешность
+     * @param maxEvaluations наибольшее количество вычислений функции (не меньше 3)
+     * @return значение, оценка погрешности и количество вычислений
+     * @throws IllegalArgumentException если границы или точность заданы некорректно
+     */
+    public static QuadratureResult romberg(Function f, double leftX, double rightX,
+                                           double absTolerance, double relTolerance, int maxEvaluations) {
+        checkArguments(f, leftX, rightX, absTolerance, relTolerance);
+        if (maxEvaluations < 3) throw new IllegalArgumentException("Romberg method needs at least 3 evaluations!");
+        if (leftX == rightX) return new QuadratureResult(0, 0, 0, true);
+
+        double length = rightX - leftX;
+        double[] ends = {leftX, rightX};
+        f.getFunctionValues(ends, ends);
+        int evaluations = 2;
+
+        // Две последние строки таблицы Ромберга
+        double[] previous = new double[ROMBERG_MAX_LEVEL + 1];
+        double[] current = new double[ROMBERG_MAX_LEVEL + 1];
+        previous[0] = (ends[0] + ends[1]) * length / 2;
+        double error = Double.POSITIVE_INFINITY;
+
+        int completed = 0;
+        while (completed < ROMBERG_MAX_LEVEL) {
+            int level = completed + 1;
+            int newNodes = 1 << (level - 1);
+            if (evaluations + newNodes > maxEvaluations) {
+                break;
+            }
+
+            // Новые узлы - середины отрезков предыдущего уровня
+            double h = length / (2 * newNodes);
+            double[] values = new double[newNodes];
+            for (int j = 0; j < newNodes; j++) {
+                values[j] = leftX + (2 * j + 1) * h;
+            }
+            f.getFunctionValues(values, values);
+            evaluations += newNodes;
+
+            double sum = 0;
+            for (double value : values) {
+                sum += value;
+            }
+            current[0] = previous[0] / 2 + h * sum;
+
+            // Экстраполяция Ричардсона
+            double factor = 1;
+            for (int j = 1; j <= level; j++) {
+                factor *= 4;
+                current[j] = current[j - 1] + (current[j - 1] - previous[j - 1]) / (factor - 1);
+            }
+
+            error = Math.abs(current[level] - previous[level - 1]);
+            double[] swap = previous;
+            previous = current;
+            current = swap;
+            completed = level;
+
+            if (Double.isNaN(error)) {
+                break;
+            }
+            // На первых уровнях совпадение может быть случайным (например, у периодических функций)
+            if (level >= ROMBERG_MIN_LEVEL && error <= Math.max(absTolerance, relTolerance * Math.abs(previous[level]))) {
+                return new QuadratureResult(previous[level], error, evaluations, true);
+            }
+        }
+
+        // Бюджет или уровни исчерпаны: лучший результат - диагональ последнего уровня
+        return new QuadratureResult(previous[completed], error, evaluations, false);
+    }
+
+    private static void checkArguments(Function f, double leftX, double rightX, double absTolerance, double relTolerance) {
+        if (f == null) throw new IllegalArgumentException("Function cannot be null!");
+        if (Double.isInfinite(leftX) || Double.isInfinite(rightX)) throw new IllegalArgumentException("Integration borders must be finite!");
+        if (f.getLeftDomainBorder() > leftX) throw new IllegalArgumentException("Incorrect left border!");
+        if (f.getRightDomainBorder() < rightX) throw new IllegalArgumentException("Incorrect right domain border!");
+        if (!(leftX <= rightX)) throw new IllegalArgumentException("Incorrect function!");
+        if (!(absTolerance >= 0) || !(relTolerance >= 0)) throw new IllegalArgumentException("Tolerance cannot be negative!");
+        if (absTolerance == 0 && relTolerance == 0) throw new IllegalArgumentException("At least one tolerance must be positive!");
+    }
+
+    /**
+     * Делит отрезок с наибольшей оценкой погрешности, пока суммарная оценка больше допустимой
+     */
+    private static QuadratureResult refine(Function f, Segment whole, int evaluations,
+                                           double absTolerance, double relTolerance, int maxEvaluations) {
+        PriorityQueue<Segment> segments = new PriorityQueue<>();
+        segments.add(whole);
+        double value = whole.value;
+        double error = whole.error;
+        boolean converged;
+
+        while (true) {
+            if (error <= Math.max(absTolerance, relTolerance * Math.abs(value))) {
+                converged = true;
+                break;
+            }
+            Segment worst = segments.peek();
+            // Значение NaN в узле (например, бесконечность на конце отрезка) делением не исправить
+            if (evaluations + worst.splitCost() > maxEvaluations || !worst.canSplit() || Double.isNaN(worst.error)) {
+                converged = false;
+                break;
+            }
+            segments.poll();
+            Segment[] halves = worst.split(f);
+            evaluations += worst.splitCost();
+            value += halves[0].value + halves[1].value - worst.value;
+            error += halves[0].error + halves[1].error - worst.error;
+            segments.add(halves[0]);
+            segments.add(halves[1]);
+        }
+
+        // Итог пересчитывается заново, чтобы не накапливать ошибку округления поправок
+        value = 0;
+        error = 0;
+        for (Segment segment : segments) {
+            value += segment.value;
+            error += segment.error;
+        }
+        return new QuadratureResult(value, error, evaluations, converged);
+    }
+
+    /**
+     * Отрезок разбиения с оценкой интеграла и погрешности на нем.
+     * Упорядочивается по убыванию погрешности (NaN - первым)
+     */
+    private abstract static class Segment implements Comparable<Segment> {
+        final double a;
+        final double b;
+        double value;
+        double error;
+
+        Segment(double a, double b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        /**
+         * @return false, если середина отрезка неотличима от его концов
+         */
+        boolean canSplit() {
+            double middle = (a + b) / 2;
+            return a < middle && middle < b;
+        }
+
+        abstract int splitCost();
+
+        abstract Segment[] split(Function f);
+
+        @Override
+        public int compareTo(Segment other) {
+            return Double.compare(other.error, error);
+        }
+    }
+
+    private static final class SimpsonSegment extends Segment {
+        private final double fa;
+        private final double fq1;
+        private final double fm;
+        private final double fq3;
+        private final double fb;
+
+        SimpsonSegment(double a, double b, double fa, double fq1, double fm, double fq3, double fb) {
+            super(a, b);
+            this.fa = fa;
+            this.fq1 = fq1;
+            this.fm = fm;
+            this.fq3 = fq3;
+            this.fb = fb;
+
+            double h = b - a;
+            double coarse = h / 6 * (fa + 4 * fm + fb);
+            double fine = h / 12 * (fa + 4 * fq1 + 2 * fm + 4 * fq3 + fb);
+            this.value = fine + (fine - coarse) / 15;
+            this.error = Math.abs(fine - coarse) / 15;
+        }
+
+        @Override
+        int splitCost() {
+            return 4;
+        }
+
+        @Override
+        Segment[] split(Function f) {
+            double m = (a + b) / 2;
+            double q1 = (a + m) / 2;
+            double q3 = (m + b) / 2;
+            double[] values = {(a + q1) / 2, (q1 + m) / 2, (m + q3) / 2, (q3 + b) / 2};
+            f.getFunctionValues(values, values);
+            return new Segment[] {
+                    new SimpsonSegment(a, m, fa, values[0], fq1, values[1], fm),
+                    new SimpsonSegment(m, b, fm, values[2], fq3, values[3], fb)
+            };
+        }
+    }
+
+    private static final class KronrodSegment extends Segment {
+
+        KronrodSegment(Function f, double a, double b) {
+            super(a, b);
+            double center = (a + b) / 2;
+            double halfLength = (b - a) / 2;
+
+            // values[0] - центр, далее пары симметричных узлов
+            double[] values = new double[15];
+            values[0] = center;
+            for (int j = 0; j < 7; j++) {
+                values[2 * j + 1] = center - halfLength * KRONROD_NODES[j];
+                values[2 * j + 2] = center + halfLength * KRONROD_NODES[j];
+            }
+            f.getFunctionValues(values, values);
+
+            double fc = values[0];
+            double kronrod = KRONROD_WEIGHTS[7] * fc;
+            double gauss = GAUSS_WEIGHTS[3] * fc;
+            double absolute = Math.abs(kronrod);
+            for (int j = 0; j < 7; j++) {
+                double sum = values[2 * j + 1] + values[2 * j + 2];
+                kronrod += KRONROD_WEIGHTS[j] * sum;
+                absolute += KRONROD_WEIGHTS[j] * (Math.abs(values[2 * j + 1]) + Math.abs(values[2 * j + 2]));
+                if (j % 2 == 1) {
+                    gauss += GAUSS_WEIGHTS[j / 2] * sum;
+                }
+            }
+
+            // Разброс значений вокруг среднего - масштаб для оценки погрешности (как в QUADPACK)
+            double mean = kronrod / 2;
+            double spread = KRONROD_WEIGHTS[7] * Math.abs(fc - mean);
+            for (int j = 0; j < 7; j++) {
+                spread += KRONROD_WEIGHTS[j] * (Math.abs(values[2 * j + 1] - mean) + Math.abs(values[2 * j + 2] - mean));
+            }
+
+            double scale = Math.abs(halfLength);
+            double err = Math.abs((kronrod - gauss) * halfLength);
+            spread *= scale;
+            absolute *= scale;
+            if (spread != 0 && err != 0) {
+                err = spread * Math.min(1, Math.pow(200 * err / spread, 1.5));
+            }
+            if (absolute > Double.MIN_NORMAL / (50 * EPSILON)) {
+                err = Math.max(50 * EPSILON * absolute, err);
+            }
+
+            this.value = kronrod * halfLength;
+            this.error = err;
+        }
+
+        @Override
+        int splitCost() {
+            return 30;
+        }
+
+        @Override
+        Segment[] split(Function f) {
+            double m = (a + b) / 2;
+            return new Segment[] {new KronrodSegment(f, a, m), new KronrodSegment(f, m, b)};
+        }
+    }
+}
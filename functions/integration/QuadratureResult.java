@@ -0,0 +1,51 @@
+package functions.integration;
+
+/**
+ * Результат численного интегрирования: значение, оценка погрешности
+ * и количество вычислений функции, затраченных на него
+ */
+public final class QuadratureResult {
+    private final double value;
+    private final double errorEstimate;
+    private final int evaluations;
+    private final boolean converged;
+
+    public QuadratureResult(double value, double errorEstimate, int evaluations, boolean converged) {
+        this.value = value;
+        this.errorEstimate = errorEstimate;
+        this.evaluations = evaluations;
+        this.converged = converged;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return оценка абсолютной погрешности значения
+     */
+    public double getErrorEstimate() {
+        return errorEstimate;
+    }
+
+    /**
+     * @return сколько раз была вычислена функция
+     */
+    public int getEvaluations() {
+        return evaluations;
+    }
+
+    /**
+     * @return true, если заданная точность достигнута; false, если исчерпан бюджет вычислений
+     * или отрезок больше нельзя делить
+     */
+    public boolean isConverged() {
+        return converged;
+    }
+
+    @Override
+    public String toString() {
+        return "<" + value + "> <±" + errorEstimate + "> <" + evaluations + " evaluations>"
+                + (converged ? "" : " <not converged>");
+    }
+}
@@ -38,4 +38,34 @@ public class Composition implements Function {
         double secondVal = secondFunc.getFunctionValue(x);
         return firstFunc.getFunctionValue(secondVal);
     }
+
+    @Override
+    // Внутренняя функция вычисляется пакетом, ее значения - пакет аргументов внешней
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        double[] secondVals = new double[xs.length];
+        secondFunc.getFunctionValues(xs, secondVals);
+        firstFunc.getFunctionValues(secondVals, out);
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return firstFunc.isImmutable() && secondFunc.isImmutable();
+    }
+
+    @Override
+    // Структурное равенство: тот же класс и равные составляющие в том же порядке
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || this.getClass() != obj.getClass()) return false;
+        Composition other = (Composition) obj;
+        return firstFunc.equals(other.firstFunc) && secondFunc.equals(other.secondFunc);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * getClass().getName().hashCode() + firstFunc.hashCode()) + secondFunc.hashCode();
+    }
 }
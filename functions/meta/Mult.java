@@ -52,4 +52,44 @@ public class Mult implements Function {
         // Умножаем значения функций
         return firstFunc.getFunctionValue(x) * secondFunc.getFunctionValue(x);
     }
+
+    @Override
+    // Каждая функция вычисляется одним пакетом, значения перемножаются поэлементно
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        double leftBorder = getLeftDomainBorder();
+        double rightBorder = getRightDomainBorder();
+
+        // Если out совпадает с xs, аргументы еще понадобятся для проверки области определения
+        double[] first = out == xs ? new double[xs.length] : out;
+        double[] second = new double[xs.length];
+        firstFunc.getFunctionValues(xs, first);
+        secondFunc.getFunctionValues(xs, second);
+
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < leftBorder || x > rightBorder) ? Double.NaN : first[i] * second[i];
+        }
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return firstFunc.isImmutable() && secondFunc.isImmutable();
+    }
+
+    @Override
+    // Структурное равенство: тот же класс и равные составляющие в том же порядке
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || this.getClass() != obj.getClass()) return false;
+        Mult other = (Mult) obj;
+        return firstFunc.equals(other.firstFunc) && secondFunc.equals(other.secondFunc);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * getClass().getName().hashCode() + firstFunc.hashCode()) + secondFunc.hashCode();
+    }
 }
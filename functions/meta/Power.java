@@ -35,5 +35,33 @@ public class Power implements Function{
         return Math.pow(funcBase.getFunctionValue(x), power);
     }
 
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        funcBase.getFunctionValues(xs, out);
+        for (int i = 0; i < xs.length; i++) {
+            out[i] = Math.pow(out[i], power);
+        }
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return funcBase.isImmutable();
+    }
 
+    @Override
+    // Структурное равенство: равные основания и одинаковая степень
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || this.getClass() != obj.getClass()) return false;
+        Power other = (Power) obj;
+        return Double.compare(power, other.power) == 0 && funcBase.equals(other.funcBase);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * (31 * getClass().getName().hashCode() + funcBase.hashCode()) + Double.hashCode(power);
+    }
 }
@@ -58,4 +58,48 @@ public class Scale implements Function {
         // Масштабируем аргумент и результат
         return func.getFunctionValue(x * xCoefficient) * yCoefficient; // Получаю новые значения
     }
+
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        double leftBorder = getLeftDomainBorder();
+        double rightBorder = getRightDomainBorder();
+
+        // Масштабированные аргументы заменяются значениями функции в том же массиве
+        double[] values = new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            values[i] = xs[i] * xCoefficient;
+        }
+        func.getFunctionValues(values, values);
+
+        for (int i = 0; i < xs.length; i++) {
+            double x = xs[i];
+            out[i] = (x < leftBorder || x > rightBorder) ? Double.NaN : values[i] * yCoefficient;
+        }
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return func.isImmutable();
+    }
+
+    @Override
+    // Структурное равенство: равные функции и одинаковые коэффициенты
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || this.getClass() != obj.getClass()) return false;
+        Scale other = (Scale) obj;
+        return Double.compare(xCoefficient, other.xCoefficient) == 0
+                && Double.compare(yCoefficient, other.yCoefficient) == 0
+                && func.equals(other.func);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * getClass().getName().hashCode() + func.hashCode();
+        hash = 31 * hash + Double.hashCode(xCoefficient);
+        return 31 * hash + Double.hashCode(yCoefficient);
+    }
 }
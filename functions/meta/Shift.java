@@ -37,4 +37,42 @@ public class Shift implements Function {
     public double getFunctionValue(double x) {
         return func.getFunctionValue(x + xCoefficient) + yCoefficient; // Сдвиг по y
     }
+
+    @Override
+    public void getFunctionValues(double[] xs, double[] out) {
+        if (out.length < xs.length) {
+            throw new IllegalArgumentException("Output array is shorter than arguments array!");
+        }
+        double[] args = new double[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            args[i] = xs[i] + xCoefficient;
+        }
+        func.getFunctionValues(args, out);
+        for (int i = 0; i < xs.length; i++) {
+            out[i] += yCoefficient;
+        }
+    }
+
+    @Override
+    public boolean isImmutable() {
+        return func.isImmutable();
+    }
+
+    @Override
+    // Структурное равенство: равные функции и одинаковые коэффициенты
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null || this.getClass() != obj.getClass()) return false;
+        Shift other = (Shift) obj;
+        return Double.compare(xCoefficient, other.xCoefficient) == 0
+                && Double.compare(yCoefficient, other.yCoefficient) == 0
+                && func.equals(other.func);
+    }
+
+    @Override
+    public int hashCode() {
+        int hash = 31 * getClass().getName().hashCode() + func.hashCode();
+        hash = 31 * hash + Double.hashCode(xCoefficient);
+        return 31 * hash + Double.hashCode(yCoefficient);
+    }
 }
@@ -0,0 +1,311 @@
+package threads;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Асинхронный получатель вывода: вызывающий поток только записывает примитивы в заранее
+ * созданную ячейку кольцевого буфера, а строки собирает отдельный поток-писатель.
+ * Писатель забирает сразу все накопившиеся записи, форматирует их в один переиспользуемый
+ * StringBuilder и сбрасывает вывод один раз на пачку.
+ * Если буфер заполнен, вызывающий поток ждет, пока писатель его освободит
+ */
+public final class AsyncResultSink implements ResultSink {
+
+    public static final int DEFAULT_CAPACITY = 4096;
+
+    private static final int SOURCE = 0;
+    private static final int RESULT = 1;
+    private static final int ERROR = 2;
+    private static final int MESSAGE = 3;
+
+    /**
+     * Ячейка буфера; переиспользуется, пока писатель не сдвинет head за нее
+     */
+    private static final class Record {
+        int kind;
+        String thread;
+        double leftX;
+        double rightX;
+        double step;
+        double value;
+        String message;
+    }
+
+    private final Record[] records;
+    private final int mask;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition written = lock.newCondition();
+    private long head; // первая невыведенная запись, сдвигает только писатель
+    private long tail; // следующая свободная ячейка
+    private boolean closed;
+    private boolean writerExited; // после этого записи больше не выводятся
+
+    private final Writer out;
+    private final boolean ownsOut;
+    private final boolean shared;
+    private final Thread writer;
+    private final StringBuilder line = new StringBuilder(128);
+    private char[] chars = new char[128];
+    private volatile IOException failure;
+
+    /**
+     * @param out вывод (закрывается вместе с получателем)
+     * @param capacity количество ячеек буфера, округляется вверх до степени двойки
+     */
+    public AsyncResultSink(Writer out, int capacity) {
+        this(out, capacity, true, false);
+    }
+
+    private AsyncResultSink(Writer out, int capacity, boolean ownsOut, boolean shared) {
+        if (out == null) throw new IllegalArgumentException("Output is null");
+        if (capacity < 1 || capacity > 1 << 30) throw new IllegalArgumentException("Incorrect capacity!");
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) size <<= 1;
+        this.records = new Record[size];
+        for (int i = 0; i < size; i++) {
+            records[i] = new Record();
+        }
+        this.mask = size - 1;
+        this.out = out;
+        this.ownsOut = ownsOut;
+        this.shared = shared;
+        this.writer = new Thread(this::writeLoop, "AsyncResultSink");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Получатель, пишущий в файл (файл перезаписывается)
+     */
+    public static AsyncResultSink toFile(String fileName) throws IOException {
+        return new AsyncResultSink(new BufferedWriter(new FileWriter(fileName), 1 << 16), DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Общий получатель, пишущий в стандартный вывод. close() только дожидается вывода записей;
+     * окончательно он закрывается при завершении JVM
+     */
+    public static AsyncResultSink console() {
+        return Console.INSTANCE;
+    }
+
+    private static final class Console {
+        static final AsyncResultSink INSTANCE = new AsyncResultSink(
+                new BufferedWriter(new OutputStreamWriter(System.out, Charset.defaultCharset()), 1 << 16),
+                DEFAULT_CAPACITY, false, true);
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(INSTANCE::shutdown, "AsyncResultSink-shutdown"));
+        }
+    }
+
+    @Override
+    public void onSource(String thread, double leftX, double rightX, double step) {
+        append(SOURCE, thread, leftX, rightX, step, Double.NaN, null);
+    }
+
+    @Override
+    public void onResult(String thread, double leftX, double rightX, double step, double value) {
+        append(RESULT, thread, leftX, rightX, step, value, null);
+    }
+
+    @Override
+    public void onError(String thread, String message) {
+        append(ERROR, thread, Double.NaN, Double.NaN, Double.NaN, Double.NaN, message);
+    }
+
+    @Override
+    public void onMessage(String thread, String message) {
+        append(MESSAGE, thread, Double.NaN, Double.NaN, Double.NaN, Double.NaN, message);
+    }
+
+    private void append(int kind, String thread, double leftX, double rightX, double step, double value,
+                        String message) {
+        lock.lock();
+        try {
+            while (!closed && tail - head == records.length) {
+                // Ждем писателя, не теряя запись; флаг прерывания сохраняется
+                notFull.awaitUninterruptibly();
+            }
+            // Проверяем после ожидания: пока ждали, писатель мог вывести остаток и завершиться
+            if (closed) throw new IllegalStateException("Sink is closed");
+            Record record = records[(int) tail & mask];
+            record.kind = kind;
+            record.thread = thread;
+            record.leftX = leftX;
+            record.rightX = rightX;
+            record.step = step;
+            record.value = value;
+            record.message = message;
+            tail++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalStateException если писатель завершился, не выведя записи
+     */
+    @Override
+    public void flush() {
+        lock.lock();
+        try {
+            long target = tail;
+            while (head < target && !writerExited) {
+                written.awaitUninterruptibly();
+            }
+            if (head < target) throw new IllegalStateException("Sink writer has stopped");
+        } finally {
+            lock.unlock();
+        }
+        checkFailure();
+    }
+
+    @Override
+    public void close() {
+        if (shared) {
+            flush();
+            return;
+        }
+        shutdown();
+        checkFailure();
+    }
+
+    private void shutdown() {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            notEmpty.signal();
+            notFull.signalAll(); // ожидающие места получат IllegalStateException
+        } finally {
+            lock.unlock();
+        }
+        boolean interrupted = false;
+        while (writer.isAlive()) {
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        try {
+            if (ownsOut) {
+                out.close();
+            } else {
+                out.flush();
+            }
+        } catch (IOException e) {
+            if (failure == null) failure = e;
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void checkFailure() {
+        IOException e = failure;
+        if (e != null) throw new UncheckedIOException("Output failed", e);
+    }
+
+    private void writeLoop() {
+        try {
+            writeRecords();
+        } finally {
+            lock.lock();
+            try {
+                writerExited = true;
+                written.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void writeRecords() {
+        while (true) {
+            long from;
+            long to;
+            lock.lock();
+            try {
+                while (head == tail && !closed) {
+                    notEmpty.awaitUninterruptibly();
+                }
+                if (head == tail) return;
+                from = head;
+                to = tail;
+            } finally {
+                lock.unlock();
+            }
+
+            // Ячейки [from, to) не перезаписываются, пока head не сдвинут, - читаем их без блокировки
+            for (long i = from; i < to; i++) {
+                write(records[(int) i & mask]);
+            }
+            try {
+                if (failure == null) out.flush();
+            } catch (IOException e) {
+                failure = e;
+            }
+
+            lock.lock();
+            try {
+                head = to;
+                notFull.signalAll();
+                written.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void write(Record record) {
+        StringBuilder line = this.line;
+        line.setLength(0);
+        if (record.thread != null) {
+            line.append(record.thread).append(' ');
+        }
+        switch (record.kind) {
+            case SOURCE:
+                line.append("Source <").append(record.leftX).append("> <").append(record.rightX)
+                        .append("> <").append(record.step).append('>');
+                break;
+            case RESULT:
+                line.append("Result <").append(record.leftX).append("> <").append(record.rightX)
+                        .append("> <").append(record.step).append("> <").append(record.value).append('>');
+                break;
+            case ERROR:
+                line.append("Error: ").append(record.message);
+                break;
+            default:
+                line.append(record.message);
+                break;
+        }
+        line.append(System.lineSeparator());
+        record.message = null;
+
+        if (failure != null) return;
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Math.max(length, chars.length * 2)];
+        }
+        line.getChars(0, length, chars, 0);
+        try {
+            out.write(chars, 0, length);
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+}
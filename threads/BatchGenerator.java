@@ -0,0 +1,115 @@
+package threads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Производитель конвейера, передающий задания пачками: набирает пачку размера,
+ * выбранного BatchSizer, и кладет ее в очередь одной операцией.
+ * В конце кладет по одному маркеру END_OF_STREAM на каждого обработчика - и тогда, когда
+ * источник выбросил исключение; оно доступно через getFailure
+ */
+public class BatchGenerator implements Runnable {
+
+    /**
+     * Маркер конца потока пачек (сравнивается по ссылке)
+     */
+    static final List<IntegrationJob> END_OF_STREAM = Collections.unmodifiableList(new ArrayList<>(0));
+
+    private final BlockingQueue<Handoff<List<IntegrationJob>>> batches;
+    private final Iterator<IntegrationJob> source;
+    private final int consumers;
+    private final BatchSizer sizer;
+    private final int capacity;
+    private final PipelineMetrics metrics; // null - без метрик
+    private volatile RuntimeException failure;
+
+    /**
+     * @param batches очередь пачек
+     * @param source источник заданий
+     * @param consumers количество обработчиков, которым нужно сообщить о конце потока
+     * @param sizer правило выбора размера пачки
+     */
+    public BatchGenerator(BlockingQueue<Handoff<List<IntegrationJob>>> batches, Iterator<IntegrationJob> source,
+                          int consumers, BatchSizer sizer) {
+        this(batches, source, consumers, sizer, null);
+    }
+
+    /**
+     * @param metrics метрики или null
+     */
+    public BatchGenerator(BlockingQueue<Handoff<List<IntegrationJob>>> batches, Iterator<IntegrationJob> source,
+                          int consumers, BatchSizer sizer, PipelineMetrics metrics) {
+        this.batches = batches;
+        this.source = source;
+        this.consumers = consumers;
+        this.sizer = sizer;
+        this.capacity = batches.size() + batches.remainingCapacity();
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return исключение, с которым завершился источник заданий, или null
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    @Override
+    public void run() {
+        List<IntegrationJob> batch = null;
+        long sequence = 0;
+        try {
+            int size = sizer.initial();
+            while (source.hasNext()) {
+                batch = new ArrayList<>(size);
+                while (batch.size() < size && source.hasNext()) {
+                    batch.add(source.next());
+                }
+                sequence = put(batch, sequence);
+                batch = null;
+                size = sizer.next(size, batches.size(), capacity);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Ошибка источника: задания, уже взятые в пачку, тоже отправляются обработчикам
+            failure = e;
+            if (batch != null && !batch.isEmpty()) {
+                try {
+                    put(batch, sequence);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        } finally {
+            endOfStream();
+        }
+    }
+
+    private long put(List<IntegrationJob> batch, long sequence) throws InterruptedException {
+        if (metrics == null) {
+            batches.put(new Handoff<>(batch));
+            return sequence;
+        }
+        // Решение об измерении - одно на пачку: задания передаются вместе
+        long stamp = metrics.startHandoff(sequence);
+        batches.put(new Handoff<>(batch, stamp));
+        metrics.endHandoff(stamp, batch.size());
+        return sequence + 1;
+    }
+
+    private void endOfStream() {
+        if (Thread.currentThread().isInterrupted()) return;
+        try {
+            for (int i = 0; i < consumers; i++) {
+                batches.put(new Handoff<>(END_OF_STREAM));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
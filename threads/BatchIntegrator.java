@@ -0,0 +1,88 @@
+package threads;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Обработчик конвейера, работающий с пачками: берет пачку заданий, вычисляет все ее задания
+ * и отправляет результаты одной пачкой. Получив END_OF_STREAM, отправляет свой маркер и завершается
+ */
+public class BatchIntegrator implements Runnable {
+
+    /**
+     * Маркер конца потока пачек результатов (сравнивается по ссылке)
+     */
+    static final List<IntegrationResult> END_OF_STREAM = Collections.unmodifiableList(new ArrayList<>(0));
+
+    private final BlockingQueue<Handoff<List<IntegrationJob>>> jobs;
+    private final BlockingQueue<List<IntegrationResult>> results;
+    private final PipelineMetrics metrics; // null - без метрик
+    private final IntegralCache cache;     // null - без кэша
+
+    /**
+     * @param jobs очередь пачек заданий
+     * @param results канал пачек результатов
+     */
+    public BatchIntegrator(BlockingQueue<Handoff<List<IntegrationJob>>> jobs, BlockingQueue<List<IntegrationResult>> results) {
+        this(jobs, results, null);
+    }
+
+    /**
+     * @param metrics метрики или null
+     */
+    public BatchIntegrator(BlockingQueue<Handoff<List<IntegrationJob>>> jobs, BlockingQueue<List<IntegrationResult>> results,
+                           PipelineMetrics metrics) {
+        this(jobs, results, metrics, null);
+    }
+
+    /**
+     * @param metrics метрики или null
+     * @param cache общий кэш интегралов или null
+     */
+    public BatchIntegrator(BlockingQueue<Handoff<List<IntegrationJob>>> jobs, BlockingQueue<List<IntegrationResult>> results,
+                           PipelineMetrics metrics, IntegralCache cache) {
+        this.jobs = jobs;
+        this.results = results;
+        this.metrics = metrics;
+        this.cache = cache;
+    }
+
+    private IntegrationResult evaluate(IntegrationJob job) {
+        return cache != null ? cache.evaluate(job) : IntegrationResult.of(job);
+    }
+
+    @Override
+    public void run() {
+        try {
+            long sequence = 0;
+            while (true) {
+                long waitStart = metrics != null ? metrics.startTake(sequence++) : 0;
+                Handoff<List<IntegrationJob>> handoff = jobs.take();
+                List<IntegrationJob> batch = handoff.get();
+                if (batch == BatchGenerator.END_OF_STREAM) {
+                    results.put(END_OF_STREAM);
+                    return;
+                }
+                List<IntegrationResult> done = new ArrayList<>(batch.size());
+                if (metrics == null) {
+                    for (IntegrationJob job : batch) {
+                        done.add(evaluate(job));
+                    }
+                } else {
+                    for (IntegrationJob job : batch) {
+                        long start = metrics.startJob(waitStart, handoff.getEnqueuedAt());
+                        waitStart = PipelineMetrics.UNSAMPLED; // ожидание - одно на пачку
+                        IntegrationResult result = evaluate(job);
+                        metrics.endJob(start, result.isSuccess());
+                        done.add(result);
+                    }
+                }
+                results.put(done);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package threads;
+
+/**
+ * Правило выбора размера пачки заданий для конвейера.
+ * Фиксированный размер не меняется; адаптивный удваивается, когда очередь пачек почти полна
+ * (обработчики не успевают - крупные пачки уменьшают число синхронизаций на задание),
+ * и уменьшается вдвое, когда очередь почти пуста (обработчики простаивают - мелкие пачки
+ * быстрее доходят до них)
+ */
+public final class BatchSizer {
+    private final int min;
+    private final int max;
+    private final int initial;
+
+    private BatchSizer(int min, int max, int initial) {
+        this.min = min;
+        this.max = max;
+        this.initial = initial;
+    }
+
+    /**
+     * @param size размер каждой пачки
+     */
+    public static BatchSizer fixed(int size) {
+        if (size < 1) throw new IllegalArgumentException("Batch size must be at least 1");
+        return new BatchSizer(size, size, size);
+    }
+
+    /**
+     * Размер пачки меняется в пределах [min, max] по заполненности очереди, начиная с min
+     */
+    public static BatchSizer adaptive(int min, int max) {
+        if (min < 1) throw new IllegalArgumentException("Batch size must be at least 1");
+        if (max < min) throw new IllegalArgumentException("Maximum batch size is less than minimum");
+        return new BatchSizer(min, max, min);
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    public boolean isAdaptive() {
+        return min != max;
+    }
+
+    /**
+     * @return размер первой пачки
+     */
+    public int initial() {
+        return initial;
+    }
+
+    /**
+     * Размер следующей пачки
+     * @param current размер последней пачки
+     * @param depth количество пачек в очереди после ее отправки
+     * @param capacity емкость очереди
+     */
+    public int next(int current, int depth, int capacity) {
+        if (depth * 4 >= capacity * 3) {
+            return Math.min(current * 2, max);
+        }
+        if (depth * 4 <= capacity) {
+            return Math.max(current / 2, min);
+        }
+        return current;
+    }
+
+    @Override
+    public String toString() {
+        return isAdaptive() ? "adaptive [" + min + ", " + max + "]" : "fixed " + min;
+    }
+}
@@ -0,0 +1,36 @@
+package threads;
+
+/**
+ * Получатель, который ничего не выводит: для замеров конвейера без затрат на вывод
+ */
+public final class DiscardResultSink implements ResultSink {
+
+    public static final DiscardResultSink INSTANCE = new DiscardResultSink();
+
+    private DiscardResultSink() {
+    }
+
+    @Override
+    public void onSource(String thread, double leftX, double rightX, double step) {
+    }
+
+    @Override
+    public void onResult(String thread, double leftX, double rightX, double step, double value) {
+    }
+
+    @Override
+    public void onError(String thread, String message) {
+    }
+
+    @Override
+    public void onMessage(String thread, String message) {
+    }
+
+    @Override
+    public void flush() {
+    }
+
+    @Override
+    public void close() {
+    }
+}
@@ -0,0 +1,80 @@
+package threads;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Способ выполнения заданий: пул платформенных потоков или отдельный виртуальный поток на каждое задание.
+ * Виртуальные потоки появились в Java 21; фабрика Executors.newVirtualThreadPerTaskExecutor
+ * ищется через рефлексию, поэтому код собирается и работает и на более старых версиях,
+ * где режим VIRTUAL просто недоступен
+ */
+public enum ExecutionMode {
+
+    /**
+     * Фиксированный пул платформенных потоков
+     */
+    PLATFORM {
+        @Override
+        public boolean isSupported() {
+            return true;
+        }
+
+        @Override
+        public ExecutorService newExecutor(int platformThreads) {
+            if (platformThreads < 1) throw new IllegalArgumentException("Count of threads must be at least 1");
+            return Executors.newFixedThreadPool(platformThreads);
+        }
+    },
+
+    /**
+     * Новый виртуальный поток на каждое задание, количество потоков не ограничено
+     */
+    VIRTUAL {
+        @Override
+        public boolean isSupported() {
+            return VirtualThreads.FACTORY != null;
+        }
+
+        @Override
+        public ExecutorService newExecutor(int platformThreads) {
+            if (!isSupported()) {
+                throw new UnsupportedOperationException("Virtual threads require Java 21 or newer");
+            }
+            try {
+                return (ExecutorService) VirtualThreads.FACTORY.invoke(null);
+            } catch (IllegalAccessException | InvocationTargetException e) {
+                throw new IllegalStateException("Cannot create virtual thread executor", e);
+            }
+        }
+    };
+
+    /**
+     * @return true, если режим доступен в текущей JVM
+     */
+    public abstract boolean isSupported();
+
+    /**
+     * Создает исполнитель для этого режима
+     * @param platformThreads размер пула платформенных потоков (в режиме VIRTUAL не используется)
+     * @throws UnsupportedOperationException если режим недоступен в текущей JVM
+     */
+    public abstract ExecutorService newExecutor(int platformThreads);
+
+    /**
+     * Ленивый поиск фабрики виртуальных потоков
+     */
+    private static final class VirtualThreads {
+        static final Method FACTORY = find();
+
+        private static Method find() {
+            try {
+                return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+    }
+}
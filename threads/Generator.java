@@ -4,41 +4,54 @@ import java.util.concurrent.Semaphore;
 public class Generator extends Thread {
     private Task task;
     private Semaphore semaphore;
+    private ResultSink sink;
+    private PipelineMetrics metrics; // null - без метрик
 
     public Generator(Task task, Semaphore semaphore) {
+        this(task, semaphore, AsyncResultSink.console());
+    }
+
+    public Generator(Task task, Semaphore semaphore, ResultSink sink) {
+        this(task, semaphore, sink, null);
+    }
+
+    public Generator(Task task, Semaphore semaphore, ResultSink sink, PipelineMetrics metrics) {
         this.task = task;
         this.semaphore = semaphore;
+        this.sink = sink;
+        this.metrics = metrics;
     }
 
     @Override
     public void run() {
         try {
             for (int i = 0; i < task.getTaskCount() && !isInterrupted(); i++) {
-                //запрашиваем разрешение на запись
-                semaphore.acquire();
-
                 //генерируем случайные параметры
                 double base = 1 + Math.random() * 9; // от 1 до 10
                 double left = Math.random() * 100;   // от 0 до 100
                 double right = 100 + Math.random() * 100; // от 100 до 200
                 double step = Math.random();         // от 0 до 1
 
+                //запрашиваем разрешение на запись
+                long stamp = metrics != null ? metrics.startHandoff(i) : 0;
+                semaphore.acquire();
+
                 //устанавливаем параметры в задание
                 task.setFunction(new functions.basic.Log(base));
                 task.setLeftX(left);
                 task.setRightX(right);
                 task.setStep(step);
-
-                System.out.println(Thread.currentThread().getName() + " Source " +
-                        "<" + task.getLeftX() + "> " +
-                        "<" + task.getRightX() + "> " +
-                        "<" + task.getStep() + "> ");
+                if (metrics != null) task.setEnqueuedAt(stamp);
 
                 //освобождаем семафор для чтения
                 semaphore.release();
+
+                //выводим уже после освобождения семафора
+                if (metrics != null) metrics.endHandoff(stamp, 1);
+                sink.onSource(getName(), left, right, step);
             }
         } catch (InterruptedException e) {
-            System.out.println("Generator interrupted");
+            sink.onMessage(null, "Generator interrupted");
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package threads;
+
+/**
+ * Элемент очереди конвейера: задание или пачка заданий вместе с отметкой времени передачи
+ * для PipelineMetrics. Отметка принадлежит передаче, а не заданию, поэтому неизменяемое
+ * IntegrationJob можно одновременно передавать в несколько конвейеров
+ * @param <T> IntegrationJob или пачка заданий
+ */
+public final class Handoff<T> {
+    private final T payload;
+    private final long enqueuedAt;
+
+    /**
+     * Передача, время которой не измеряется
+     */
+    public Handoff(T payload) {
+        this(payload, PipelineMetrics.UNSAMPLED);
+    }
+
+    /**
+     * @param payload задание или пачка
+     * @param enqueuedAt результат PipelineMetrics.startHandoff
+     */
+    public Handoff(T payload, long enqueuedAt) {
+        this.payload = payload;
+        this.enqueuedAt = enqueuedAt;
+    }
+
+    public T get() {
+        return payload;
+    }
+
+    /**
+     * @return отметка времени передачи или PipelineMetrics.UNSAMPLED
+     */
+    public long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+}
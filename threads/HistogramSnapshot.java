@@ -0,0 +1,84 @@
+package threads;
+
+/**
+ * Неизменяемая копия LatencyHistogram: количество, среднее, максимум и процентили в наносекундах
+ */
+public final class HistogramSnapshot {
+    private final long[] counts;
+    private final long count;
+    private final long sum;
+    private final long max;
+
+    HistogramSnapshot(long[] counts, long count, long sum, long max) {
+        this.counts = counts;
+        this.count = count;
+        this.sum = sum;
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count == 0 ? Double.NaN : (double) sum / count;
+    }
+
+    /**
+     * @return максимум за все время существования гистограммы (в разности снимков тоже)
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Процентиль с относительной погрешностью не больше 1/64
+     * @param percentile от 0 до 100
+     * @return верхняя граница корзины, в которую попал процентиль, или 0 для пустой гистограммы
+     */
+    public long getPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100)) throw new IllegalArgumentException("Incorrect percentile!");
+        if (count == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.highestValue(i), max);
+            }
+        }
+        return max;
+    }
+
+    public long getP50() {
+        return getPercentile(50);
+    }
+
+    public long getP99() {
+        return getPercentile(99);
+    }
+
+    public long getP999() {
+        return getPercentile(99.9);
+    }
+
+    /**
+     * Записи, сделанные после previous (previous - более ранний снимок той же гистограммы)
+     */
+    public HistogramSnapshot since(HistogramSnapshot previous) {
+        long[] delta = new long[counts.length];
+        long total = 0;
+        for (int i = 0; i < counts.length; i++) {
+            delta[i] = Math.max(0, counts[i] - previous.counts[i]);
+            total += delta[i];
+        }
+        return new HistogramSnapshot(delta, total, sum - previous.sum, max);
+    }
+
+    @Override
+    public String toString() {
+        if (count == 0) return "no samples";
+        return String.format("n=%d mean=%.1fus p50=%.1fus p99=%.1fus p999=%.1fus max=%.1fus",
+                count, getMean() / 1e3, getP50() / 1e3, getP99() / 1e3, getP999() / 1e3, max / 1e3);
+    }
+}
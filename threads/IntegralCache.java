@@ -0,0 +1,349 @@
+package threads;
+
+import functions.Function;
+import functions.Functions;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный кэш значений интегралов, общий для всех обработчиков.
+ * Ключ - функция (по структурному equals/hashCode), границы и шаг; кэшируются только
+ * неизменные функции (Function.isImmutable), остальные, например табулированные, всегда вычисляются заново.
+ * <ul>
+ * <li>Чтение - поиск в ConcurrentHashMap без блокировок и отметка времени обращения в записи;</li>
+ * <li>вставка и вытеснение выполняются под одной блокировкой: вытесняется самая давняя
+ * по обращению из SAMPLE случайных записей (приближенный LRU);</li>
+ * <li>в заполненный кэш новый интеграл попадает, только если по счетчику частот (TinyLFU)
+ * его запрашивали чаще, чем вытесняемый, поэтому поток разовых заданий не вымывает частые.</li>
+ * </ul>
+ * Несколько потоков, одновременно не нашедших один и тот же интеграл, вычислят его каждый сам:
+ * вычисление идет вне блокировок, а результат одинаков
+ */
+public final class IntegralCache {
+
+    private static final int SAMPLE = 8;
+
+    /**
+     * Отметка обращения - System.nanoTime(), огрубленное до 2^10 нс: частые обращения к одной записи
+     * в пределах такта не переписывают ее отметку
+     */
+    private static final int TICK_SHIFT = 10;
+
+    private final int maximumSize;
+    private final ConcurrentHashMap<Key, Entry> map;
+    private final FrequencySketch sketch;
+    private final Object writeLock = new Object();
+    private final Entry[] entries;  // записи кэша подряд, для случайной выборки; под writeLock
+    private int size;               // под writeLock
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bypassed = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * @param maximumSize наибольшее количество интегралов в кэше
+     */
+    public IntegralCache(int maximumSize) {
+        if (maximumSize < 1) throw new IllegalArgumentException("Maximum size must be at least 1");
+        this.maximumSize = maximumSize;
+        this.map = new ConcurrentHashMap<>(maximumSize * 4 / 3 + 1);
+        this.sketch = new FrequencySketch(maximumSize);
+        this.entries = new Entry[maximumSize];
+    }
+
+    /**
+     * Можно ли кэшировать интегралы функции
+     */
+    public static boolean isCacheable(Function function) {
+        return function != null && function.isImmutable();
+    }
+
+    /**
+     * Интеграл из кэша или, если его там нет, вычисленный Functions.integral.
+     * Исключения вычисления пробрасываются, а неудачные вычисления не кэшируются
+     */
+    public double integrate(Function function, double leftX, double rightX, double step) {
+        if (!isCacheable(function)) {
+            bypassed.increment();
+            return Functions.integral(function, leftX, rightX, step);
+        }
+        Key key = new Key(function, leftX, rightX, step);
+        Entry entry = find(key);
+        if (entry != null) {
+            return entry.value;
+        }
+        double value = Functions.integral(function, leftX, rightX, step);
+        insert(key, value);
+        return value;
+    }
+
+    /**
+     * Выполняет задание через кэш и упаковывает результат или ошибку, как IntegrationResult.of
+     */
+    public IntegrationResult evaluate(IntegrationJob job) {
+        try {
+            return IntegrationResult.success(job,
+                    integrate(job.getFunction(), job.getLeftX(), job.getRightX(), job.getStep()));
+        } catch (Exception e) {
+            return IntegrationResult.failure(job, e);
+        }
+    }
+
+    /**
+     * Интеграл из кэша без вычисления
+     * @return значение или null, если его нет в кэше или функцию нельзя кэшировать
+     */
+    public Double getIfPresent(Function function, double leftX, double rightX, double step) {
+        if (!isCacheable(function)) {
+            bypassed.increment();
+            return null;
+        }
+        Entry entry = find(new Key(function, leftX, rightX, step));
+        return entry == null ? null : entry.value;
+    }
+
+    /**
+     * Кладет вычисленный в другом месте интеграл (с учетом правила допуска в заполненный кэш);
+     * для функций, которые нельзя кэшировать, ничего не делает
+     */
+    public void put(Function function, double leftX, double rightX, double step, double value) {
+        if (isCacheable(function)) {
+            insert(new Key(function, leftX, rightX, step), value);
+        }
+    }
+
+    private Entry find(Key key) {
+        sketch.increment(key.hash);
+        Entry entry = map.get(key);
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        long now = tick();
+        if (entry.lastAccess != now) { // не пишем лишний раз в общую запись
+            entry.lastAccess = now;
+        }
+        return entry;
+    }
+
+    private void insert(Key key, double value) {
+        synchronized (writeLock) {
+            if (map.containsKey(key)) return;
+            if (size == maximumSize) {
+                Entry victim = sampleVictim();
+                if (sketch.frequency(key.hash) <= sketch.frequency(victim.key.hash)) {
+                    rejections.increment();
+                    return;
+                }
+                map.remove(victim.key);
+                removeAt(victim.index);
+                evictions.increment();
+            }
+            Entry entry = new Entry(key, value, tick());
+            entry.index = size;
+            entries[size++] = entry;
+            map.put(key, entry);
+        }
+    }
+
+    /**
+     * Текущее время для отметок обращений; идет и тогда, когда в заполненный кэш ничего не допускается
+     */
+    private static long tick() {
+        return System.nanoTime() >> TICK_SHIFT;
+    }
+
+    private Entry sampleVictim() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Entry victim = entries[random.nextInt(size)];
+        for (int i = 1; i < SAMPLE; i++) {
+            Entry candidate = entries[random.nextInt(size)];
+            if (candidate.lastAccess < victim.lastAccess) {
+                victim = candidate;
+            }
+        }
+        return victim;
+    }
+
+    private void removeAt(int index) {
+        Entry last = entries[--size];
+        entries[index] = last;
+        last.index = index;
+        entries[size] = null;
+    }
+
+    /**
+     * Удаляет все интегралы; статистика сохраняется
+     */
+    public void clear() {
+        synchronized (writeLock) {
+            map.clear();
+            Arrays.fill(entries, 0, size, null);
+            size = 0;
+        }
+    }
+
+    public int getMaximumSize() {
+        return maximumSize;
+    }
+
+    public int size() {
+        return map.size();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return обращения с функциями, которые нельзя кэшировать
+     */
+    public long getBypassed() {
+        return bypassed.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return вычисленные интегралы, не допущенные в заполненный кэш
+     */
+    public long getRejections() {
+        return rejections.sum();
+    }
+
+    /**
+     * @return доля попаданий среди обращений с кэшируемыми функциями или NaN, если обращений не было
+     */
+    public double getHitRate() {
+        long hit = hits.sum();
+        long total = hit + misses.sum();
+        return total == 0 ? Double.NaN : (double) hit / total;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("size %d/%d, hits %d, misses %d (hit rate %.1f%%), bypassed %d, evictions %d, rejections %d",
+                size(), maximumSize, getHits(), getMisses(), getHitRate() * 100, getBypassed(),
+                getEvictions(), getRejections());
+    }
+
+    private static final class Key {
+        private final Function function;
+        private final double leftX;
+        private final double rightX;
+        private final double step;
+        private final int hash;
+
+        Key(Function function, double leftX, double rightX, double step) {
+            this.function = function;
+            this.leftX = leftX;
+            this.rightX = rightX;
+            this.step = step;
+            int h = function.hashCode();
+            h = 31 * h + Double.hashCode(leftX);
+            h = 31 * h + Double.hashCode(rightX);
+            this.hash = 31 * h + Double.hashCode(step);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) return true;
+            if (obj == null || this.getClass() != obj.getClass()) return false;
+            Key key = (Key) obj;
+            return hash == key.hash
+                    && Double.compare(leftX, key.leftX) == 0
+                    && Double.compare(rightX, key.rightX) == 0
+                    && Double.compare(step, key.step) == 0
+                    && function.equals(key.function);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Entry {
+        final Key key;
+        final double value;
+        volatile long lastAccess;
+        int index; // позиция в entries; под writeLock
+
+        Entry(Key key, double value, long lastAccess) {
+            this.key = key;
+            this.value = value;
+            this.lastAccess = lastAccess;
+        }
+    }
+
+    /**
+     * Count-min sketch из четырех строк счетчиков до 15: оценка частоты - минимум по строкам.
+     * Когда число увеличений достигает 10 ширин, все счетчики делятся пополам, и старая
+     * популярность постепенно забывается. Увеличения не атомарны: при гонке часть
+     * из них теряется, что для оценки частоты допустимо
+     */
+    private static final class FrequencySketch {
+        private static final int ROWS = 4;
+        private static final int MAX_COUNT = 15;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final byte[] table;
+        private final int mask;
+        private final int resetThreshold;
+        private int additions; // неточный при гонках, влияет только на момент деления
+
+        FrequencySketch(int maximumSize) {
+            int width = Integer.highestOneBit(Math.max(16, maximumSize - 1) << 1);
+            this.table = new byte[ROWS * width];
+            this.mask = width - 1;
+            this.resetThreshold = 10 * width;
+        }
+
+        void increment(int hash) {
+            boolean added = false;
+            for (int row = 0; row < ROWS; row++) {
+                int i = indexOf(hash, row);
+                if (table[i] < MAX_COUNT) {
+                    table[i]++;
+                    added = true;
+                }
+            }
+            if (added && ++additions >= resetThreshold) {
+                reset();
+            }
+        }
+
+        int frequency(int hash) {
+            int min = MAX_COUNT;
+            for (int row = 0; row < ROWS; row++) {
+                min = Math.min(min, table[indexOf(hash, row)]);
+            }
+            return min;
+        }
+
+        private int indexOf(int hash, int row) {
+            int h = hash * SEEDS[row];
+            h ^= h >>> 16;
+            return row * (mask + 1) + (h & mask);
+        }
+
+        private void reset() {
+            additions = 0;
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (byte) (table[i] >> 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package threads;
+
+import functions.Function;
+import functions.Functions;
+import functions.basic.Log;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Неизменяемое задание на интегрирование. В отличие от Task его можно безопасно
+ * передавать между потоками через очередь: все поля final и заданы в конструкторе.
+ * Отметка времени передачи для PipelineMetrics хранится не в задании, а в Handoff
+ * или задаче исполнителя
+ */
+public final class IntegrationJob {
+
+    /**
+     * Маркер конца потока заданий: получив его, обработчик завершает работу
+     */
+    static final IntegrationJob END_OF_STREAM = new IntegrationJob();
+
+    private final long id;
+    private final Function function;
+    private final double leftX;
+    private final double rightX;
+    private final double step;
+
+    /**
+     * @param id номер задания
+     * @param function интегрируемая функция
+     * @param leftX левая граница
+     * @param rightX правая граница
+     * @param step шаг интегрирования
+     */
+    public IntegrationJob(long id, Function function, double leftX, double rightX, double step) {
+        if (function == null) throw new IllegalArgumentException("Function cannot be null");
+        this.id = id;
+        this.function = function;
+        this.leftX = leftX;
+        this.rightX = rightX;
+        this.step = step;
+    }
+
+    private IntegrationJob() {
+        this.id = -1;
+        this.function = null;
+        this.leftX = Double.NaN;
+        this.rightX = Double.NaN;
+        this.step = Double.NaN;
+    }
+
+    /**
+     * Случайное задание с теми же диапазонами, что у Generator: логарифм с основанием от 1 до 10,
+     * левая граница от 0 до 100, правая от 100 до 200, шаг от 0 до 1
+     * @param id номер задания
+     * @param random генератор случайных чисел
+     */
+    public static IntegrationJob random(long id, Random random) {
+        double base = 1 + random.nextDouble() * 9;
+        double left = random.nextDouble() * 100;
+        double right = 100 + random.nextDouble() * 100;
+        double step = random.nextDouble();
+        return new IntegrationJob(id, new Log(base), left, right, step);
+    }
+
+    /**
+     * Последовательность из count случайных заданий, которые создаются по мере обхода
+     * @param count количество заданий
+     */
+    public static Iterable<IntegrationJob> randomJobs(int count) {
+        if (count < 0) throw new IllegalArgumentException("Count of jobs cannot be negative");
+        return () -> new Iterator<IntegrationJob>() {
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < count;
+            }
+
+            @Override
+            public IntegrationJob next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException("NoSuchElement!");
+                }
+                return random(index++, ThreadLocalRandom.current());
+            }
+        };
+    }
+
+    /**
+     * Вычисляет интеграл задания
+     */
+    public double integrate() {
+        return Functions.integral(function, leftX, rightX, step);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+
+    public double getLeftX() {
+        return leftX;
+    }
+
+    public double getRightX() {
+        return rightX;
+    }
+
+    public double getStep() {
+        return step;
+    }
+
+    @Override
+    public String toString() {
+        return "<" + leftX + "> " + "<" + rightX + "> " + "<" + step + ">";
+    }
+}
@@ -0,0 +1,196 @@
+package threads;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Конвейер производитель/потребители: один QueueGenerator, N обработчиков QueueIntegrator,
+ * ограниченные очереди заданий и результатов. Результаты передаются обработчику
+ * в вызывающем потоке; конец работы определяется по маркерам END_OF_STREAM от всех обработчиков.
+ * Если задан BatchSizer, задания и результаты передаются пачками (BatchGenerator, BatchIntegrator)
+ */
+public class IntegrationPipeline {
+    private final int workers;
+    private final int queueCapacity;
+    private final BatchSizer batchSizer;
+    private PipelineMetrics metrics;
+    private IntegralCache cache;
+
+    /**
+     * @param workers количество потоков-обработчиков
+     * @param queueCapacity емкость очередей заданий и результатов
+     */
+    public IntegrationPipeline(int workers, int queueCapacity) {
+        if (workers < 1) throw new IllegalArgumentException("Count of workers must be at least 1");
+        if (queueCapacity < 1) throw new IllegalArgumentException("Queue capacity must be at least 1");
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.batchSizer = null;
+    }
+
+    /**
+     * Конвейер с передачей пачками
+     * @param workers количество потоков-обработчиков
+     * @param queueCapacity емкость очередей в пачках
+     * @param batchSizer правило выбора размера пачки
+     */
+    public IntegrationPipeline(int workers, int queueCapacity, BatchSizer batchSizer) {
+        if (workers < 1) throw new IllegalArgumentException("Count of workers must be at least 1");
+        if (queueCapacity < 1) throw new IllegalArgumentException("Queue capacity must be at least 1");
+        if (batchSizer == null) throw new IllegalArgumentException("Batch sizer is null");
+        this.workers = workers;
+        this.queueCapacity = queueCapacity;
+        this.batchSizer = batchSizer;
+    }
+
+    /**
+     * Включает сбор метрик для следующих запусков; длиной очереди считается очередь заданий
+     * (в пачечном режиме - число пачек в ней)
+     * @param metrics метрики или null, чтобы отключить
+     */
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public PipelineMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Включает общий для всех обработчиков кэш интегралов для следующих запусков.
+     * Кэш может переживать запуски и использоваться несколькими конвейерами
+     * @param cache кэш или null, чтобы отключить
+     */
+    public void setCache(IntegralCache cache) {
+        this.cache = cache;
+    }
+
+    public IntegralCache getCache() {
+        return cache;
+    }
+
+    /**
+     * @return правило выбора размера пачки или null, если задания передаются по одному
+     */
+    public BatchSizer getBatchSizer() {
+        return batchSizer;
+    }
+
+    /**
+     * Обрабатывает count случайных заданий
+     * @see #run(Iterable, Consumer)
+     */
+    public int run(int count, Consumer<IntegrationResult> onResult) throws InterruptedException {
+        return run(IntegrationJob.randomJobs(count), onResult);
+    }
+
+    /**
+     * Запускает конвейер и ждет, пока все задания будут обработаны.
+     * Если вызывающий поток прерван или onResult выбросил исключение, потоки конвейера прерываются.
+     * Если источник заданий выбросил исключение, задания, полученные до него, обрабатываются,
+     * после чего это исключение выбрасывается из run
+     * @param source задания
+     * @param onResult получатель результатов (вызывается в текущем потоке, по мере готовности)
+     * @return количество обработанных заданий
+     * @throws InterruptedException если ожидание результатов было прервано
+     */
+    public int run(Iterable<IntegrationJob> source, Consumer<IntegrationResult> onResult) throws InterruptedException {
+        if (batchSizer != null) {
+            return runBatched(source, onResult);
+        }
+        BlockingQueue<Handoff<IntegrationJob>> jobs = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<IntegrationResult> results = new ArrayBlockingQueue<>(queueCapacity);
+        PipelineMetrics metrics = this.metrics;
+        if (metrics != null) metrics.setQueueDepth(jobs::size);
+
+        QueueGenerator generator = new QueueGenerator(jobs, source.iterator(), workers, metrics);
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(generator, "QueueGenerator"));
+        for (int i = 0; i < workers; i++) {
+            threads.add(new Thread(new QueueIntegrator(jobs, results, metrics, cache), "QueueIntegrator-" + i));
+        }
+        start(threads);
+
+        int processed = 0;
+        int finished = 0;
+        try {
+            while (finished < workers) {
+                IntegrationResult result = results.take();
+                if (result == IntegrationResult.END_OF_STREAM) {
+                    finished++;
+                } else {
+                    processed++;
+                    onResult.accept(result);
+                }
+            }
+        } finally {
+            stop(threads, finished < workers);
+        }
+        rethrow(generator.getFailure());
+        return processed;
+    }
+
+    private int runBatched(Iterable<IntegrationJob> source, Consumer<IntegrationResult> onResult) throws InterruptedException {
+        BlockingQueue<Handoff<List<IntegrationJob>>> jobs = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<List<IntegrationResult>> results = new ArrayBlockingQueue<>(queueCapacity);
+        PipelineMetrics metrics = this.metrics;
+        if (metrics != null) metrics.setQueueDepth(jobs::size);
+
+        BatchGenerator generator = new BatchGenerator(jobs, source.iterator(), workers, batchSizer, metrics);
+        List<Thread> threads = new ArrayList<>();
+        threads.add(new Thread(generator, "BatchGenerator"));
+        for (int i = 0; i < workers; i++) {
+            threads.add(new Thread(new BatchIntegrator(jobs, results, metrics, cache), "BatchIntegrator-" + i));
+        }
+        start(threads);
+
+        int processed = 0;
+        int finished = 0;
+        try {
+            while (finished < workers) {
+                List<IntegrationResult> batch = results.take();
+                if (batch == BatchIntegrator.END_OF_STREAM) {
+                    finished++;
+                } else {
+                    for (IntegrationResult result : batch) {
+                        processed++;
+                        onResult.accept(result);
+                    }
+                }
+            }
+        } finally {
+            stop(threads, finished < workers);
+        }
+        rethrow(generator.getFailure());
+        return processed;
+    }
+
+    private static void rethrow(RuntimeException failure) {
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static void start(List<Thread> threads) {
+        for (Thread thread : threads) {
+            thread.start();
+        }
+    }
+
+    /**
+     * Дожидается потоков конвейера, предварительно прерывая их, если работа не доведена до конца
+     */
+    private static void stop(List<Thread> threads, boolean interrupt) throws InterruptedException {
+        if (interrupt) {
+            for (Thread thread : threads) {
+                thread.interrupt();
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package threads;
+
+/**
+ * Неизменяемый результат задания: значение интеграла или исключение, с которым оно завершилось
+ */
+public final class IntegrationResult {
+
+    /**
+     * Маркер конца потока результатов: его отправляет обработчик, закончивший работу
+     */
+    static final IntegrationResult END_OF_STREAM = new IntegrationResult(null, Double.NaN, null);
+
+    private final IntegrationJob job;
+    private final double value;
+    private final Exception error;
+
+    private IntegrationResult(IntegrationJob job, double value, Exception error) {
+        this.job = job;
+        this.value = value;
+        this.error = error;
+    }
+
+    public static IntegrationResult success(IntegrationJob job, double value) {
+        return new IntegrationResult(job, value, null);
+    }
+
+    public static IntegrationResult failure(IntegrationJob job, Exception error) {
+        return new IntegrationResult(job, Double.NaN, error);
+    }
+
+    /**
+     * Выполняет задание и упаковывает результат или ошибку
+     */
+    public static IntegrationResult of(IntegrationJob job) {
+        try {
+            return success(job, job.integrate());
+        } catch (Exception e) {
+            return failure(job, e);
+        }
+    }
+
+    public IntegrationJob getJob() {
+        return job;
+    }
+
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return исключение, с которым завершилось задание, или null
+     */
+    public Exception getError() {
+        return error;
+    }
+
+    public boolean isSuccess() {
+        return error == null;
+    }
+
+    @Override
+    public String toString() {
+        if (!isSuccess()) {
+            return "Error " + job + " " + error.getMessage();
+        }
+        return "Result " + job + " <" + value + ">";
+    }
+}
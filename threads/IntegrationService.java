@@ -0,0 +1,256 @@
+package threads;
+
+import functions.Function;
+import functions.Functions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Асинхронное вычисление интегралов: каждый вызов возвращает CompletableFuture,
+ * который можно комбинировать, не блокируя вызывающий поток.
+ * Крупный интеграл считается частями по CHECK_INTERVAL шагов (по тем же границам шагов,
+ * что и в SplittingScheduler), и между частями проверяется, не завершен ли future и не прерван ли поток:
+ * отмена (cancel), истечение времени (orTimeout) и прерывание останавливают вычисление на ближайшей
+ * границе части
+ */
+public class IntegrationService implements AutoCloseable {
+
+    /**
+     * Сколько шагов считается между проверками отмены
+     */
+    static final long CHECK_INTERVAL = 65_536;
+
+    private final Executor executor;
+    private final ExecutorService ownedExecutor;
+    private volatile PipelineMetrics metrics;
+    private volatile IntegralCache cache;
+    private final AtomicLong submitted = new AtomicLong();
+
+    /**
+     * Сервис на общем ForkJoinPool
+     */
+    public IntegrationService() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * @param executor исполнитель вычислений (не закрывается сервисом)
+     */
+    public IntegrationService(Executor executor) {
+        if (executor == null) throw new IllegalArgumentException("Executor cannot be null");
+        this.executor = executor;
+        this.ownedExecutor = null;
+    }
+
+    /**
+     * Сервис с собственным исполнителем, который закрывается в close()
+     * @param mode режим выполнения
+     * @param platformThreads размер пула для режима PLATFORM
+     * @throws UnsupportedOperationException если режим недоступен в текущей JVM
+     */
+    public IntegrationService(ExecutionMode mode, int platformThreads) {
+        if (mode == null) throw new IllegalArgumentException("Mode cannot be null");
+        if (platformThreads < 1) throw new IllegalArgumentException("Count of threads must be at least 1");
+        this.ownedExecutor = mode.newExecutor(platformThreads);
+        this.executor = ownedExecutor;
+    }
+
+    /**
+     * Включает сбор метрик: задержкой очереди считается время от вызова до начала вычисления;
+     * отмененные вычисления не учитываются как обработанные
+     * @param metrics метрики или null, чтобы отключить
+     */
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Включает кэш интегралов: найденный в кэше интеграл возвращается уже завершенным future
+     * без передачи исполнителю, а успешно вычисленные кладутся в кэш
+     * @param cache кэш или null, чтобы отключить
+     */
+    public void setCache(IntegralCache cache) {
+        this.cache = cache;
+    }
+
+    /**
+     * Запускает вычисление интеграла методом трапеций (см. Functions.integral).
+     * Ошибка параметров завершает future исключением IllegalArgumentException
+     * @return future со значением интеграла; cancel прекращает вычисление
+     */
+    public CompletableFuture<Double> integrateAsync(Function f, double leftX, double rightX, double step) {
+        PipelineMetrics metrics = this.metrics;
+        IntegralCache cache = this.cache;
+        if (cache != null) {
+            Double cached = cache.getIfPresent(f, leftX, rightX, step);
+            if (cached != null) {
+                if (metrics != null) {
+                    metrics.onProduced();
+                    metrics.onConsumed(true);
+                }
+                return CompletableFuture.completedFuture(cached);
+            }
+        }
+        long stamp = metrics != null ? metrics.startHandoff(submitted.getAndIncrement()) : 0;
+        Computation computation = new Computation(f, leftX, rightX, step, metrics, stamp, cache);
+        if (metrics != null) metrics.onProduced();
+        try {
+            executor.execute(computation);
+        } catch (RejectedExecutionException e) {
+            computation.future.completeExceptionally(e);
+        }
+        return computation.future;
+    }
+
+    /**
+     * То же, с ограничением времени: по истечении timeout future завершается TimeoutException,
+     * а вычисление прекращается
+     */
+    public CompletableFuture<Double> integrateAsync(Function f, double leftX, double rightX, double step,
+                                                    long timeout, TimeUnit unit) {
+        return integrateAsync(f, leftX, rightX, step).orTimeout(timeout, unit);
+    }
+
+    /**
+     * Запускает задание; ошибка задания не завершает future исключением, а попадает в результат
+     */
+    public CompletableFuture<IntegrationResult> integrateAsync(IntegrationJob job) {
+        return toResult(job, integrateAsync(job.getFunction(), job.getLeftX(), job.getRightX(), job.getStep()));
+    }
+
+    /**
+     * Запускает все задания
+     * @return future, который завершается, когда готовы все задания, со списком результатов в порядке заданий;
+     * его отмена или завершение по orTimeout отменяет незавершенные задания
+     */
+    public CompletableFuture<List<IntegrationResult>> integrateAll(Collection<IntegrationJob> jobs) {
+        List<CompletableFuture<Double>> values = new ArrayList<>(jobs.size());
+        List<CompletableFuture<IntegrationResult>> results = new ArrayList<>(jobs.size());
+        for (IntegrationJob job : jobs) {
+            CompletableFuture<Double> value = integrateAsync(job.getFunction(), job.getLeftX(), job.getRightX(), job.getStep());
+            values.add(value);
+            results.add(toResult(job, value));
+        }
+
+        CompletableFuture<List<IntegrationResult>> all = CompletableFuture
+                .allOf(results.toArray(new CompletableFuture<?>[0]))
+                .thenApply(ignored -> {
+                    List<IntegrationResult> list = new ArrayList<>(results.size());
+                    for (CompletableFuture<IntegrationResult> result : results) {
+                        list.add(result.join());
+                    }
+                    return list;
+                });
+        all.whenComplete((list, error) -> {
+            if (all.isCancelled() || error != null) {
+                for (CompletableFuture<Double> value : values) {
+                    value.cancel(false);
+                }
+            }
+        });
+        return all;
+    }
+
+    private static CompletableFuture<IntegrationResult> toResult(IntegrationJob job, CompletableFuture<Double> value) {
+        return value.handle((v, error) -> {
+            if (error == null) {
+                return IntegrationResult.success(job, v);
+            }
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            return IntegrationResult.failure(job, cause instanceof Exception ? (Exception) cause : new CompletionException(cause));
+        });
+    }
+
+    /**
+     * Останавливает собственный исполнитель: еще не начатые вычисления отменяются, а потоки
+     * начатых прерываются, и их future отменяются на ближайшей границе части (для интеграла
+     * не больше CHECK_INTERVAL шагов вычисление доводится до конца). Метод не ждет остановки потоков.
+     * Исполнитель, переданный в конструктор, не трогается
+     */
+    @Override
+    public void close() {
+        if (ownedExecutor == null) return;
+        for (Runnable pending : ownedExecutor.shutdownNow()) {
+            if (pending instanceof Computation) {
+                ((Computation) pending).future.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Вычисление одного интеграла, связанное со своим future
+     */
+    private static final class Computation implements Runnable {
+        final CompletableFuture<Double> future = new CompletableFuture<>();
+        private final Function function;
+        private final double leftX;
+        private final double rightX;
+        private final double step;
+        private final PipelineMetrics metrics;
+        private final long enqueuedAt;
+        private final IntegralCache cache;
+
+        Computation(Function function, double leftX, double rightX, double step, PipelineMetrics metrics,
+                    long enqueuedAt, IntegralCache cache) {
+            this.function = function;
+            this.leftX = leftX;
+            this.rightX = rightX;
+            this.step = step;
+            this.metrics = metrics;
+            this.enqueuedAt = enqueuedAt;
+            this.cache = cache;
+        }
+
+        @Override
+        public void run() {
+            if (future.isDone()) return;
+            if (metrics == null) {
+                compute();
+                return;
+            }
+            long start = metrics.startJob(PipelineMetrics.UNSAMPLED, enqueuedAt);
+            compute();
+            if (!future.isCancelled()) {
+                metrics.endJob(start, !future.isCompletedExceptionally());
+            }
+        }
+
+        private void compute() {
+            try {
+                long segments = SplittingScheduler.segments(function, leftX, rightX, step);
+                if (segments <= CHECK_INTERVAL) {
+                    complete(Functions.integral(function, leftX, rightX, step));
+                    return;
+                }
+                double sum = 0;
+                for (long from = 0; from < segments; from += CHECK_INTERVAL) {
+                    if (future.isDone()) return; // отменен или истекло время
+                    if (Thread.currentThread().isInterrupted()) { // close() или остановка чужого исполнителя
+                        future.cancel(false);
+                        return;
+                    }
+                    long to = Math.min(from + CHECK_INTERVAL, segments);
+                    sum += SplittingScheduler.integrateSteps(function, leftX, rightX, step, segments, from, to);
+                }
+                complete(sum);
+            } catch (Exception e) {
+                future.completeExceptionally(e);
+            }
+        }
+
+        private void complete(double value) {
+            if (cache != null) cache.put(function, leftX, rightX, step, value);
+            future.complete(value);
+        }
+    }
+}
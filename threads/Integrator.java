@@ -5,37 +5,59 @@ import functions.Functions;
 public class Integrator extends Thread {
     private Task task;
     private Semaphore semaphore;
+    private ResultSink sink;
+    private PipelineMetrics metrics; // null - без метрик
 
     public Integrator(Task task, Semaphore semaphore) {
+        this(task, semaphore, AsyncResultSink.console());
+    }
+
+    public Integrator(Task task, Semaphore semaphore, ResultSink sink) {
+        this(task, semaphore, sink, null);
+    }
+
+    public Integrator(Task task, Semaphore semaphore, ResultSink sink, PipelineMetrics metrics) {
         this.task = task;
         this.semaphore = semaphore;
+        this.sink = sink;
+        this.metrics = metrics;
     }
 
     @Override
     public void run() {
         try {
             for (int i = 0; i < task.getTaskCount() && !isInterrupted(); i++) {
+                double result = Double.NaN;
+                Exception error = null;
+
                 //запрашиваем разрешение на чтение
+                long waitStart = metrics != null ? metrics.startTake(i) : 0;
                 semaphore.acquire();
+                long start = metrics != null ? metrics.startJob(waitStart, task.getEnqueuedAt()) : 0;
 
                 //получаем параметры задания
                 double left = task.getLeftX();
                 double right = task.getRightX();
                 double step = task.getStep();
+                try {
+                    //вычисляем интеграл
+                    result = Functions.integral(task.getFunction(), left, right, step);
+                } catch (Exception e) {
+                    error = e;
+                } finally {
+                    //освобождаем семафор для записи
+                    semaphore.release();
+                }
 
-                //вычисляем интеграл и выводим результат
-                double result = Functions.integral(task.getFunction(), left, right, step);
-                System.out.println(Thread.currentThread().getName() + " Result " +
-                        "<" + task.getLeftX() + "> " +
-                        "<" + task.getRightX() + "> " +
-                        "<" + task.getStep() + "> " +
-                        "<" + result + ">");
-
-                //освобождаем семафор для записи
-                semaphore.release();
+                //выводим уже после освобождения семафора
+                if (metrics != null) metrics.endJob(start, error == null);
+                if (error == null) {
+                    sink.onResult(getName(), left, right, step, result);
+                } else {
+                    sink.onError(getName(), error.getMessage());
+                }
             }
         }
-        catch (InterruptedException e) {System.out.println("Integrator interrupted");}
-        catch (Exception e) {System.out.println("Integration error: " + e.getMessage());}
+        catch (InterruptedException e) {sink.onMessage(null, "Integrator interrupted");}
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,94 @@
+package threads;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Выполняет набор заданий в выбранном режиме (ExecutionMode), каждое задание - отдельной задачей исполнителя.
+ * Завершение структурное: исполнитель создается на время одного вызова runAll, и к возврату из него
+ * все задания либо выполнены, либо отменены, ни один поток не переживает вызов
+ */
+public class JobExecutor {
+    private final ExecutionMode mode;
+    private final int platformThreads;
+    private PipelineMetrics metrics;
+
+    /**
+     * @param mode режим выполнения
+     * @param platformThreads размер пула для режима PLATFORM
+     * @throws UnsupportedOperationException если режим недоступен в текущей JVM
+     */
+    public JobExecutor(ExecutionMode mode, int platformThreads) {
+        if (mode == null) throw new IllegalArgumentException("Mode cannot be null");
+        if (platformThreads < 1) throw new IllegalArgumentException("Count of threads must be at least 1");
+        if (!mode.isSupported()) throw new UnsupportedOperationException("Execution mode " + mode + " is not supported");
+        this.mode = mode;
+        this.platformThreads = platformThreads;
+    }
+
+    public ExecutionMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Включает сбор метрик: задержкой очереди считается время от отправки задачи до ее запуска
+     * @param metrics метрики или null, чтобы отключить
+     */
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Выполняет все задания и ждет их завершения
+     * @param jobs задания
+     * @return результаты в порядке заданий
+     * @throws InterruptedException если ожидание прервано; незавершенные задания при этом отменяются
+     */
+    public List<IntegrationResult> runAll(Collection<IntegrationJob> jobs) throws InterruptedException {
+        PipelineMetrics metrics = this.metrics;
+        ExecutorService executor = mode.newExecutor(platformThreads);
+        List<Callable<IntegrationResult>> tasks = new ArrayList<>(jobs.size());
+        if (metrics == null) {
+            for (IntegrationJob job : jobs) {
+                tasks.add(() -> IntegrationResult.of(job));
+            }
+        } else {
+            // Отметка передачи хранится в задаче, а не в задании: задание могут выполнять и другие
+            long sequence = 0;
+            for (IntegrationJob job : jobs) {
+                long enqueuedAt = metrics.startHandoff(sequence++);
+                tasks.add(() -> measured(job, enqueuedAt, metrics));
+            }
+            metrics.onProduced(jobs.size());
+        }
+        try {
+            // invokeAll ждет все задачи, а при прерывании сам отменяет оставшиеся
+            List<Future<IntegrationResult>> futures = executor.invokeAll(tasks);
+            List<IntegrationResult> results = new ArrayList<>(futures.size());
+            for (Future<IntegrationResult> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (ExecutionException e) {
+            // IntegrationResult.of перехватывает исключения заданий, сюда попадают только ошибки JVM
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            // Задания не реагируют на прерывание, поэтому отмененные, но уже начатые досчитываются
+            executor.shutdownNow();
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static IntegrationResult measured(IntegrationJob job, long enqueuedAt, PipelineMetrics metrics) {
+        long start = metrics.startJob(PipelineMetrics.UNSAMPLED, enqueuedAt);
+        IntegrationResult result = IntegrationResult.of(job);
+        metrics.endJob(start, result.isSuccess());
+        return result;
+    }
+}
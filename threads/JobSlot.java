@@ -0,0 +1,85 @@
+package threads;
+
+import functions.Function;
+import functions.Functions;
+
+/**
+ * Изменяемая ячейка кольцевого буфера SpscRingBuffer. Ячейки создаются один раз и используются повторно,
+ * поэтому передача задания не создает объектов. Поля обычные (не volatile): производитель заполняет
+ * ячейку до публикации, потребитель читает после, и порядок обеспечивают счетчики буфера
+ */
+public final class JobSlot {
+    private long id;
+    private Function function;
+    private double leftX;
+    private double rightX;
+    private double step;
+    private long enqueuedAt = PipelineMetrics.UNSAMPLED; // используется только метриками
+
+    JobSlot() {}
+
+    /**
+     * Заполняет ячейку (вызывается производителем между claim и publish)
+     */
+    public void set(long id, Function function, double leftX, double rightX, double step) {
+        this.id = id;
+        this.function = function;
+        this.leftX = leftX;
+        this.rightX = rightX;
+        this.step = step;
+    }
+
+    /**
+     * Заполняет ячейку параметрами задания
+     */
+    public void set(IntegrationJob job) {
+        set(job.getId(), job.getFunction(), job.getLeftX(), job.getRightX(), job.getStep());
+    }
+
+    void markEnqueued(long nanos) {
+        enqueuedAt = nanos;
+    }
+
+    long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    /**
+     * @return неизменяемая копия задания, которую можно хранить после release
+     */
+    public IntegrationJob toJob() {
+        return new IntegrationJob(id, function, leftX, rightX, step);
+    }
+
+    /**
+     * Вычисляет интеграл задания из ячейки
+     */
+    public double integrate() {
+        return Functions.integral(function, leftX, rightX, step);
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public Function getFunction() {
+        return function;
+    }
+
+    public double getLeftX() {
+        return leftX;
+    }
+
+    public double getRightX() {
+        return rightX;
+    }
+
+    public double getStep() {
+        return step;
+    }
+
+    @Override
+    public String toString() {
+        return "<" + leftX + "> " + "<" + rightX + "> " + "<" + step + ">";
+    }
+}
@@ -0,0 +1,72 @@
+package threads;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Гистограмма длительностей в наносекундах с логарифмически-линейными корзинами (как в HdrHistogram):
+ * значения меньше 128 хранятся точно, каждый следующий диапазон [2^k, 2^(k+1)) делится на 64 корзины,
+ * поэтому относительная погрешность процентилей не больше 1/64 во всем диапазоне long.
+ * Запись - одно атомарное увеличение счетчика корзины без блокировок и выделения памяти
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BITS = 7;
+    private static final int LINEAR = 1 << SUB_BITS;          // точные значения 0..127
+    private static final int HALF = LINEAR >> 1;              // корзин на каждую степень двойки
+    static final int BUCKETS = (63 - SUB_BITS + 2) * HALF;    // до Long.MAX_VALUE
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Записывает длительность; отрицательные значения считаются нулем
+     */
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        counts.getAndIncrement(index(nanos));
+        sum.add(nanos);
+        long current = max.get();
+        while (nanos > current && !max.compareAndSet(current, nanos)) {
+            current = max.get();
+        }
+    }
+
+    /**
+     * Копия текущего состояния. Записи, идущие одновременно со снятием копии,
+     * могут попасть в нее частично (в счетчик корзины, но не в сумму)
+     */
+    public HistogramSnapshot snapshot() {
+        long[] copy = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            copy[i] = counts.get(i);
+            count += copy[i];
+        }
+        return new HistogramSnapshot(copy, count, sum.sum(), max.get());
+    }
+
+    static int index(long value) {
+        if (value < LINEAR) {
+            return (int) value;
+        }
+        int high = 63 - Long.numberOfLeadingZeros(value); // >= SUB_BITS
+        int shift = high - SUB_BITS + 1;
+        int sub = (int) (value >>> shift);                 // из [HALF, LINEAR)
+        return (shift + 1) * HALF + sub - HALF;
+    }
+
+    /**
+     * @return наибольшее значение, попадающее в корзину
+     */
+    static long highestValue(int index) {
+        if (index < LINEAR) {
+            return index;
+        }
+        int shift = index / HALF - 1;
+        long sub = index % HALF + HALF;
+        return ((sub + 1) << shift) - 1;
+    }
+}
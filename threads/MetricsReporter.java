@@ -0,0 +1,67 @@
+package threads;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Периодически выводит метрики конвейера в ResultSink: значения за прошедший интервал
+ * (скорости, процентили), а при закрытии - итог за все время.
+ * Снимки снимаются в отдельном потоке и не задерживают потоки конвейера
+ */
+public class MetricsReporter implements AutoCloseable {
+    private final PipelineMetrics metrics;
+    private final ResultSink sink;
+    private final ScheduledExecutorService timer;
+    private MetricsSnapshot previous;
+
+    /**
+     * Запускает вывод
+     * @param metrics метрики
+     * @param period период вывода
+     * @param unit единица периода
+     * @param sink куда выводить
+     */
+    public MetricsReporter(PipelineMetrics metrics, long period, TimeUnit unit, ResultSink sink) {
+        if (metrics == null) throw new IllegalArgumentException("Metrics cannot be null");
+        if (sink == null) throw new IllegalArgumentException("Sink cannot be null");
+        if (period <= 0) throw new IllegalArgumentException("Period must be greater than 0!");
+        this.metrics = metrics;
+        this.sink = sink;
+        this.previous = metrics.snapshot();
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "MetricsReporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::report, period, period, unit);
+    }
+
+    private synchronized void report() {
+        MetricsSnapshot current = metrics.snapshot();
+        sink.onMessage("Metrics", current.since(previous).toString());
+        previous = current;
+    }
+
+    /**
+     * Останавливает вывод и выводит итог за все время
+     */
+    @Override
+    public void close() {
+        timer.shutdownNow();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (timer.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS)) break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        synchronized (this) {
+            sink.onMessage("Metrics total", metrics.snapshot().toString());
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
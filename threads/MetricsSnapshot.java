@@ -0,0 +1,100 @@
+package threads;
+
+/**
+ * Неизменяемый снимок PipelineMetrics: накопленные значения с момента создания метрик
+ * или, для результата since, за интервал между двумя снимками
+ */
+public final class MetricsSnapshot {
+    private final long elapsedNanos;
+    private final long produced;
+    private final long consumed;
+    private final long failed;
+    private final int queueDepth;
+    private final HistogramSnapshot queueLatency;
+    private final HistogramSnapshot integration;
+    private final HistogramSnapshot producerWait;
+    private final HistogramSnapshot consumerWait;
+
+    MetricsSnapshot(long elapsedNanos, long produced, long consumed, long failed, int queueDepth,
+                    HistogramSnapshot queueLatency, HistogramSnapshot integration,
+                    HistogramSnapshot producerWait, HistogramSnapshot consumerWait) {
+        this.elapsedNanos = elapsedNanos;
+        this.produced = produced;
+        this.consumed = consumed;
+        this.failed = failed;
+        this.queueDepth = queueDepth;
+        this.queueLatency = queueLatency;
+        this.integration = integration;
+        this.producerWait = producerWait;
+        this.consumerWait = consumerWait;
+    }
+
+    /**
+     * Разность с более ранним снимком тех же метрик; длина очереди берется из текущего снимка
+     */
+    public MetricsSnapshot since(MetricsSnapshot previous) {
+        return new MetricsSnapshot(elapsedNanos - previous.elapsedNanos,
+                produced - previous.produced, consumed - previous.consumed, failed - previous.failed, queueDepth,
+                queueLatency.since(previous.queueLatency), integration.since(previous.integration),
+                producerWait.since(previous.producerWait), consumerWait.since(previous.consumerWait));
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public long getProduced() {
+        return produced;
+    }
+
+    public long getConsumed() {
+        return consumed;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public double getProducedPerSecond() {
+        return elapsedNanos == 0 ? 0 : produced * 1e9 / elapsedNanos;
+    }
+
+    public double getConsumedPerSecond() {
+        return elapsedNanos == 0 ? 0 : consumed * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * @return длина очереди в момент снимка или -1, если конвейер ее не сообщает
+     */
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    public HistogramSnapshot getQueueLatency() {
+        return queueLatency;
+    }
+
+    public HistogramSnapshot getIntegration() {
+        return integration;
+    }
+
+    public HistogramSnapshot getProducerWait() {
+        return producerWait;
+    }
+
+    public HistogramSnapshot getConsumerWait() {
+        return consumerWait;
+    }
+
+    @Override
+    public String toString() {
+        String nl = System.lineSeparator();
+        return String.format("produced %d (%.0f/s), consumed %d (%.0f/s), failed %d, queue depth %s",
+                produced, getProducedPerSecond(), consumed, getConsumedPerSecond(), failed,
+                queueDepth < 0 ? "n/a" : String.valueOf(queueDepth))
+                + nl + "  queue latency: " + queueLatency
+                + nl + "  integration:   " + integration
+                + nl + "  producer wait: " + producerWait
+                + nl + "  consumer wait: " + consumerWait;
+    }
+}
@@ -0,0 +1,45 @@
+package threads;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * Счетчик последовательности, выровненный до отдельной строки кэша: поля-заполнители
+ * по обе стороны от значения (через иерархию классов, чтобы JVM их не переупорядочила)
+ * не дают счетчикам производителя и потребителя делить одну строку (false sharing)
+ */
+final class PaddedSequence extends SequenceRightPadding {
+
+    private static final AtomicLongFieldUpdater<SequenceValue> VALUE =
+            AtomicLongFieldUpdater.newUpdater(SequenceValue.class, "value");
+
+    PaddedSequence(long initial) {
+        value = initial;
+    }
+
+    /**
+     * Чтение с семантикой acquire: после него видны все записи, сделанные до setOrdered
+     */
+    long get() {
+        return value;
+    }
+
+    /**
+     * Запись с семантикой release (lazySet): дешевле volatile-записи, так как не ждет
+     * опустошения буфера записи, но все предыдущие записи станут видны раньше нового значения
+     */
+    void setOrdered(long newValue) {
+        VALUE.lazySet(this, newValue);
+    }
+}
+
+abstract class SequenceLeftPadding {
+    long p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SequenceValue extends SequenceLeftPadding {
+    volatile long value;
+}
+
+abstract class SequenceRightPadding extends SequenceValue {
+    long p11, p12, p13, p14, p15, p16, p17;
+}
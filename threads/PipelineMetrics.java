@@ -0,0 +1,142 @@
+package threads;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Метрики конвейера: счетчики заданий (LongAdder, без общей точки конкуренции между потоками)
+ * и гистограммы длительностей:
+ * <ul>
+ * <li>queueLatency - от передачи задания производителем до получения обработчиком;</li>
+ * <li>integration - вычисление интеграла;</li>
+ * <li>producerWait и consumerWait - ожидание семафора, места в очереди или задания.</li>
+ * </ul>
+ * Счетчики точные, а время измеряется у каждого sampleInterval-го задания: System.nanoTime()
+ * стоит десятки наносекунд, что сравнимо со временем передачи задания. Решение об измерении
+ * принимает производитель и передает его вместе с заданием в отметке времени передачи.
+ * Задержка очереди отсчитывается от начала передачи (put, claim, acquire), поэтому включает
+ * ожидание места производителем.
+ * Компоненты конвейера принимают метрики необязательным параметром; без них время не измеряется вовсе
+ */
+public final class PipelineMetrics {
+
+    /**
+     * Отметка времени передачи для задания, время которого не измеряется
+     */
+    public static final long UNSAMPLED = Long.MIN_VALUE;
+
+    private final long startNanos = System.nanoTime();
+    private final int sampleInterval;
+    private final long sampleMask;
+    private final LongAdder produced = new LongAdder();
+    private final LongAdder consumed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LatencyHistogram queueLatency = new LatencyHistogram();
+    private final LatencyHistogram integration = new LatencyHistogram();
+    private final LatencyHistogram producerWait = new LatencyHistogram();
+    private final LatencyHistogram consumerWait = new LatencyHistogram();
+    private volatile IntSupplier queueDepth;
+
+    /**
+     * Метрики, измеряющие время каждого задания
+     */
+    public PipelineMetrics() {
+        this(1);
+    }
+
+    /**
+     * @param sampleInterval время измеряется у каждого sampleInterval-го задания (степень двойки)
+     */
+    public PipelineMetrics(int sampleInterval) {
+        if (sampleInterval < 1 || Integer.bitCount(sampleInterval) != 1)
+            throw new IllegalArgumentException("Sample interval must be a power of 2");
+        this.sampleInterval = sampleInterval;
+        this.sampleMask = sampleInterval - 1;
+    }
+
+    public int getSampleInterval() {
+        return sampleInterval;
+    }
+
+    /**
+     * Начало передачи задания производителем
+     * @param sequence номер задания у этого производителя
+     * @return отметка времени, которую нужно записать в задание до передачи
+     */
+    public long startHandoff(long sequence) {
+        return (sequence & sampleMask) == 0 ? System.nanoTime() : UNSAMPLED;
+    }
+
+    /**
+     * Конец передачи: учитывает count заданий и время ожидания производителя
+     * @param stamp результат startHandoff
+     */
+    public void endHandoff(long stamp, int count) {
+        if (stamp != UNSAMPLED) producerWait.record(System.nanoTime() - stamp);
+        produced.add(count);
+    }
+
+    /**
+     * Начало ожидания задания обработчиком
+     * @param sequence номер ожидания у этого обработчика
+     * @return значение для startJob
+     */
+    public long startTake(long sequence) {
+        return (sequence & sampleMask) == 0 ? System.nanoTime() : UNSAMPLED;
+    }
+
+    /**
+     * Задание получено и начинает вычисляться
+     * @param waitStart результат startTake или UNSAMPLED, если ожидание не измерялось
+     * @param enqueuedAt отметка времени из задания
+     * @return значение для endJob
+     */
+    public long startJob(long waitStart, long enqueuedAt) {
+        if (waitStart == UNSAMPLED && enqueuedAt == UNSAMPLED) return UNSAMPLED;
+        long now = System.nanoTime();
+        if (waitStart != UNSAMPLED) consumerWait.record(now - waitStart);
+        if (enqueuedAt == UNSAMPLED) return UNSAMPLED;
+        queueLatency.record(now - enqueuedAt);
+        return now;
+    }
+
+    /**
+     * Задание вычислено
+     * @param start результат startJob
+     */
+    public void endJob(long start, boolean success) {
+        if (start != UNSAMPLED) integration.record(System.nanoTime() - start);
+        onConsumed(success);
+    }
+
+    public void onProduced() {
+        produced.increment();
+    }
+
+    public void onProduced(int count) {
+        produced.add(count);
+    }
+
+    /**
+     * @param success завершилось ли задание без ошибки
+     */
+    public void onConsumed(boolean success) {
+        consumed.increment();
+        if (!success) failed.increment();
+    }
+
+    /**
+     * @param queueDepth источник текущей длины очереди или null, если длина неизвестна
+     */
+    public void setQueueDepth(IntSupplier queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+
+    public MetricsSnapshot snapshot() {
+        IntSupplier depth = queueDepth;
+        long now = System.nanoTime();
+        return new MetricsSnapshot(now - startNanos, produced.sum(), consumed.sum(), failed.sum(),
+                depth == null ? -1 : depth.getAsInt(),
+                queueLatency.snapshot(), integration.snapshot(), producerWait.snapshot(), consumerWait.snapshot());
+    }
+}
@@ -0,0 +1,80 @@
+package threads;
+
+import java.util.Iterator;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Производитель конвейера: кладет задания в ограниченную очередь (ожидая, пока в ней
+ * освободится место), а в конце - по одному маркеру END_OF_STREAM на каждого обработчика.
+ * Маркеры отправляются и тогда, когда источник выбросил исключение; оно доступно через getFailure
+ */
+public class QueueGenerator implements Runnable {
+    private final BlockingQueue<Handoff<IntegrationJob>> jobs;
+    private final Iterator<IntegrationJob> source;
+    private final int consumers;
+    private final PipelineMetrics metrics; // null - без метрик
+    private volatile RuntimeException failure;
+
+    /**
+     * @param jobs очередь заданий
+     * @param source источник заданий
+     * @param consumers количество обработчиков, которым нужно сообщить о конце потока
+     */
+    public QueueGenerator(BlockingQueue<Handoff<IntegrationJob>> jobs, Iterator<IntegrationJob> source, int consumers) {
+        this(jobs, source, consumers, null);
+    }
+
+    /**
+     * @param metrics метрики или null
+     */
+    public QueueGenerator(BlockingQueue<Handoff<IntegrationJob>> jobs, Iterator<IntegrationJob> source, int consumers,
+                          PipelineMetrics metrics) {
+        this.jobs = jobs;
+        this.source = source;
+        this.consumers = consumers;
+        this.metrics = metrics;
+    }
+
+    /**
+     * @return исключение, с которым завершился источник заданий, или null
+     */
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    @Override
+    public void run() {
+        try {
+            long sequence = 0;
+            while (source.hasNext()) {
+                IntegrationJob job = source.next();
+                if (metrics == null) {
+                    jobs.put(new Handoff<>(job));
+                    continue;
+                }
+                long stamp = metrics.startHandoff(sequence++);
+                jobs.put(new Handoff<>(job, stamp));
+                metrics.endHandoff(stamp, 1);
+            }
+        } catch (InterruptedException e) {
+            // Конвейер остановлен - сохраняем флаг прерывания и выходим
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Ошибка источника: уже переданные задания обрабатываются, а конвейер сообщает ее вызывающему
+            failure = e;
+        } finally {
+            endOfStream();
+        }
+    }
+
+    private void endOfStream() {
+        if (Thread.currentThread().isInterrupted()) return;
+        try {
+            for (int i = 0; i < consumers; i++) {
+                jobs.put(new Handoff<>(IntegrationJob.END_OF_STREAM));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package threads;
+
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Обработчик конвейера: берет задания из очереди, пока не получит END_OF_STREAM,
+ * и отправляет результаты в канал результатов. Обработчиков может быть несколько
+ */
+public class QueueIntegrator implements Runnable {
+    private final BlockingQueue<Handoff<IntegrationJob>> jobs;
+    private final BlockingQueue<IntegrationResult> results;
+    private final PipelineMetrics metrics; // null - без метрик
+    private final IntegralCache cache;     // null - без кэша
+
+    /**
+     * @param jobs очередь заданий
+     * @param results канал результатов
+     */
+    public QueueIntegrator(BlockingQueue<Handoff<IntegrationJob>> jobs, BlockingQueue<IntegrationResult> results) {
+        this(jobs, results, null);
+    }
+
+    /**
+     * @param metrics метрики или null
+     */
+    public QueueIntegrator(BlockingQueue<Handoff<IntegrationJob>> jobs, BlockingQueue<IntegrationResult> results,
+                           PipelineMetrics metrics) {
+        this(jobs, results, metrics, null);
+    }
+
+    /**
+     * @param metrics метрики или null
+     * @param cache общий кэш интегралов или null
+     */
+    public QueueIntegrator(BlockingQueue<Handoff<IntegrationJob>> jobs, BlockingQueue<IntegrationResult> results,
+                           PipelineMetrics metrics, IntegralCache cache) {
+        this.jobs = jobs;
+        this.results = results;
+        this.metrics = metrics;
+        this.cache = cache;
+    }
+
+    private IntegrationResult evaluate(IntegrationJob job) {
+        return cache != null ? cache.evaluate(job) : IntegrationResult.of(job);
+    }
+
+    @Override
+    public void run() {
+        try {
+            long sequence = 0;
+            while (true) {
+                long waitStart = metrics != null ? metrics.startTake(sequence++) : 0;
+                Handoff<IntegrationJob> handoff = jobs.take();
+                IntegrationJob job = handoff.get();
+                if (job == IntegrationJob.END_OF_STREAM) {
+                    results.put(IntegrationResult.END_OF_STREAM);
+                    return;
+                }
+                if (metrics == null) {
+                    results.put(evaluate(job));
+                    continue;
+                }
+                long start = metrics.startJob(waitStart, handoff.getEnqueuedAt());
+                IntegrationResult result = evaluate(job);
+                metrics.endJob(start, result.isSuccess());
+                results.put(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
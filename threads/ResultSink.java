@@ -0,0 +1,57 @@
+package threads;
+
+/**
+ * Получатель вывода конвейера: исходные задания, результаты, ошибки и служебные сообщения.
+ * Методы вызываются из потоков конвейера и не должны вызываться внутри критических секций:
+ * реализация может ждать, пока освободится место в буфере.
+ * Параметры передаются как примитивы, чтобы вызывающий поток не собирал строку
+ */
+public interface ResultSink extends AutoCloseable {
+
+    /**
+     * Сгенерировано задание
+     * @param thread имя потока или null
+     */
+    void onSource(String thread, double leftX, double rightX, double step);
+
+    /**
+     * Вычислен интеграл
+     * @param thread имя потока или null
+     */
+    void onResult(String thread, double leftX, double rightX, double step, double value);
+
+    /**
+     * Задание завершилось ошибкой
+     * @param thread имя потока или null
+     */
+    void onError(String thread, String message);
+
+    /**
+     * Служебное сообщение (запуск, остановка потока и т.п.)
+     * @param thread имя потока или null
+     */
+    void onMessage(String thread, String message);
+
+    /**
+     * Передает результат задания в onResult или onError
+     */
+    default void onResult(String thread, IntegrationResult result) {
+        IntegrationJob job = result.getJob();
+        if (result.isSuccess()) {
+            onResult(thread, job.getLeftX(), job.getRightX(), job.getStep(), result.getValue());
+        } else {
+            onError(thread, result.getError().getMessage());
+        }
+    }
+
+    /**
+     * Дожидается, пока все принятые записи будут выведены
+     */
+    void flush();
+
+    /**
+     * Выводит оставшиеся записи и освобождает ресурсы; после закрытия записи не принимаются
+     */
+    @Override
+    void close();
+}
@@ -0,0 +1,51 @@
+package threads;
+
+import java.util.Iterator;
+
+/**
+ * Производитель для SpscRingBuffer: копирует задания в ячейки буфера и закрывает буфер в конце
+ * (в том числе при прерывании, чтобы потребитель не ждал вечно)
+ */
+public class RingGenerator implements Runnable {
+    private final SpscRingBuffer buffer;
+    private final Iterator<IntegrationJob> source;
+    private final PipelineMetrics metrics; // null - без метрик
+
+    public RingGenerator(SpscRingBuffer buffer, Iterator<IntegrationJob> source) {
+        this(buffer, source, null);
+    }
+
+    /**
+     * @param metrics метрики или null
+     */
+    public RingGenerator(SpscRingBuffer buffer, Iterator<IntegrationJob> source, PipelineMetrics metrics) {
+        this.buffer = buffer;
+        this.source = source;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void run() {
+        try {
+            long sequence = 0;
+            while (source.hasNext()) {
+                IntegrationJob job = source.next();
+                if (metrics == null) {
+                    buffer.claim().set(job);
+                    buffer.publish();
+                    continue;
+                }
+                long stamp = metrics.startHandoff(sequence++);
+                JobSlot slot = buffer.claim();
+                slot.set(job);
+                slot.markEnqueued(stamp);
+                buffer.publish();
+                metrics.endHandoff(stamp, 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            buffer.close();
+        }
+    }
+}
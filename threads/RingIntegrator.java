@@ -0,0 +1,78 @@
+package threads;
+
+import java.util.function.Consumer;
+
+/**
+ * Потребитель для SpscRingBuffer: вычисляет интегралы из ячеек, пока буфер не закрыт и не опустел.
+ * Результат передается SlotResultHandler прямо из ячейки, до ее освобождения, поэтому обработка
+ * задания не создает объектов, если их не создает сам получатель
+ */
+public class RingIntegrator implements Runnable {
+    private final SpscRingBuffer buffer;
+    private final SlotResultHandler onResult;
+    private final PipelineMetrics metrics; // null - без метрик
+    private int processed;
+
+    /**
+     * @param buffer буфер заданий
+     * @param onResult получатель результатов (вызывается в потоке обработчика)
+     */
+    public RingIntegrator(SpscRingBuffer buffer, Consumer<IntegrationResult> onResult) {
+        this(buffer, onResult, null);
+    }
+
+    /**
+     * @param metrics метрики или null
+     */
+    public RingIntegrator(SpscRingBuffer buffer, Consumer<IntegrationResult> onResult, PipelineMetrics metrics) {
+        this(buffer, SlotResultHandler.of(onResult), metrics);
+    }
+
+    /**
+     * @param buffer буфер заданий
+     * @param onResult получатель результатов из ячейки (вызывается в потоке обработчика)
+     * @param metrics метрики или null
+     */
+    public RingIntegrator(SpscRingBuffer buffer, SlotResultHandler onResult, PipelineMetrics metrics) {
+        this.buffer = buffer;
+        this.onResult = onResult;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void run() {
+        try {
+            JobSlot slot;
+            long sequence = 0;
+            long waitStart = metrics != null ? metrics.startTake(sequence++) : 0;
+            while ((slot = buffer.take()) != null) {
+                long start = metrics != null ? metrics.startJob(waitStart, slot.getEnqueuedAt()) : 0;
+                double value = Double.NaN;
+                Exception error = null;
+                try {
+                    value = slot.integrate();
+                } catch (Exception e) {
+                    error = e;
+                }
+                processed++;
+                if (metrics != null) metrics.endJob(start, error == null);
+                try {
+                    onResult.onResult(slot, value, error);
+                } finally {
+                    // Ячейку освобождаем только после получателя: до этого он читает задание из нее
+                    buffer.release();
+                }
+                if (metrics != null) waitStart = metrics.startTake(sequence++);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return количество обработанных заданий (читать после завершения потока)
+     */
+    public int getProcessed() {
+        return processed;
+    }
+}
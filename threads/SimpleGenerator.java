@@ -1,19 +1,31 @@
 package threads;
 
-import static functions.Functions.integral;
 import functions.Function;
 import functions.basic.Log;
 
 public class SimpleGenerator implements Runnable {
     private Task task;
+    private ResultSink sink;
+    private PipelineMetrics metrics; // null - без метрик
 
     public SimpleGenerator(Task task) {
+        this(task, AsyncResultSink.console());
+    }
+
+    public SimpleGenerator(Task task, ResultSink sink) {
+        this(task, sink, null);
+    }
+
+    public SimpleGenerator(Task task, ResultSink sink, PipelineMetrics metrics) {
         this.task = task;
+        this.sink = sink;
+        this.metrics = metrics;
     }
 
     @Override
     public void run() {
-        System.out.println(Thread.currentThread().getName() + " запущен");
+        String name = Thread.currentThread().getName();
+        sink.onMessage(name, "запущен");
 
         for (int i = 0; i < task.getTaskCount(); i++) {
             double logBase = 1 + Math.random() * 9;
@@ -22,16 +34,14 @@ public class SimpleGenerator implements Runnable {
             double rightX = 100 + Math.random() * 100;
             double step = Math.random();
 
+            if (metrics != null) task.setEnqueuedAt(metrics.startHandoff(i));
             task.setFunction(log);
             task.setLeftX(leftX);
             task.setRightX(rightX);
             task.setStep(step);
 
-            System.out.println(Thread.currentThread().getName() + " Source " +
-                    "<" + task.getLeftX() + "> " +
-                    "<" + task.getRightX() + "> " +
-                    "<" + task.getStep() + "> ");
-
+            if (metrics != null) metrics.onProduced();
+            sink.onSource(name, leftX, rightX, step);
 
             try {
                 Thread.sleep(10); // Даем время Integrator'у
@@ -40,6 +50,6 @@ public class SimpleGenerator implements Runnable {
             }
         }
         task.setEnd(true);
-        System.out.println(Thread.currentThread().getName() + " завершен");
+        sink.onMessage(name, "завершен");
     }
-}
\ No newline at end of file
+}
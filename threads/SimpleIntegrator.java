@@ -4,33 +4,47 @@ import static functions.Functions.integral;
 
 public class SimpleIntegrator implements Runnable {
     private Task task;
+    private ResultSink sink;
+    private PipelineMetrics metrics; // null - без метрик
 
     public SimpleIntegrator(Task task) {
+        this(task, AsyncResultSink.console());
+    }
+
+    public SimpleIntegrator(Task task, ResultSink sink) {
+        this(task, sink, null);
+    }
+
+    public SimpleIntegrator(Task task, ResultSink sink, PipelineMetrics metrics) {
         this.task = task;
+        this.sink = sink;
+        this.metrics = metrics;
     }
 
     @Override
     public void run() {
-        System.out.println(Thread.currentThread().getName() + " запущен");
+        String name = Thread.currentThread().getName();
+        sink.onMessage(name, "запущен");
         int processed = 0;
 
         while (!task.isEnd() || processed < task.getTaskCount()) {
             if (task.getFunction() != null) {
+                double leftX = task.getLeftX();
+                double rightX = task.getRightX();
+                double step = task.getStep();
+                long start = metrics != null ? metrics.startJob(PipelineMetrics.UNSAMPLED, task.getEnqueuedAt()) : 0;
                 try {
-                    double integralValue = integral(task.getFunction(),
-                            task.getLeftX(), task.getRightX(), task.getStep());
+                    double integralValue = integral(task.getFunction(), leftX, rightX, step);
+                    if (metrics != null) metrics.endJob(start, true);
 
-                    System.out.println(Thread.currentThread().getName() + " Result " +
-                            "<" + task.getLeftX() + "> " +
-                            "<" + task.getRightX() + "> " +
-                            "<" + task.getStep() + "> " +
-                            "<" + integralValue + ">");
+                    sink.onResult(name, leftX, rightX, step, integralValue);
 
                     processed++;
                     task.setFunction(null);
 
                 } catch (Exception e) {
-                    System.out.println(Thread.currentThread().getName() + " Error: " + e.getMessage());
+                    if (metrics != null) metrics.endJob(start, false);
+                    sink.onError(name, e.getMessage());
                     processed++;
                 }
             }
@@ -42,6 +56,6 @@ public class SimpleIntegrator implements Runnable {
                 break;
             }
         }
-        System.out.println(Thread.currentThread().getName() + " завершен. Обработано: " + processed);
+        sink.onMessage(name, "завершен. Обработано: " + processed);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,42 @@
+package threads;
+
+import java.util.function.Consumer;
+
+/**
+ * Получатель результатов RingIntegrator без создания объектов: вызывается в потоке обработчика,
+ * пока ячейка еще принадлежит ему. Ссылку на ячейку нельзя сохранять после возврата:
+ * производитель заполнит ее следующим заданием (для хранения есть JobSlot.toJob)
+ */
+@FunctionalInterface
+public interface SlotResultHandler {
+
+    /**
+     * @param slot ячейка с заданием
+     * @param value значение интеграла или NaN, если задание завершилось ошибкой
+     * @param error исключение задания или null
+     */
+    void onResult(JobSlot slot, double value, Exception error);
+
+    /**
+     * Получатель, собирающий из ячейки IntegrationResult (с копией задания) для каждого результата
+     */
+    static SlotResultHandler of(Consumer<IntegrationResult> onResult) {
+        return (slot, value, error) -> onResult.accept(error == null
+                ? IntegrationResult.success(slot.toJob(), value)
+                : IntegrationResult.failure(slot.toJob(), error));
+    }
+
+    /**
+     * Получатель, передающий результаты в ResultSink примитивами
+     * @param thread имя потока для вывода или null
+     */
+    static SlotResultHandler of(ResultSink sink, String thread) {
+        return (slot, value, error) -> {
+            if (error == null) {
+                sink.onResult(thread, slot.getLeftX(), slot.getRightX(), slot.getStep(), value);
+            } else {
+                sink.onError(thread, error.getMessage());
+            }
+        };
+    }
+}
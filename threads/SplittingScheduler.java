@@ -0,0 +1,226 @@
+package threads;
+
+import functions.Function;
+import functions.Functions;
+import functions.TabulatedFunction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Планировщик заданий на ForkJoinPool с разделением крупных заданий.
+ * Стоимость задания оценивается числом шагов (rightX - leftX) / step. Задание дороже порога
+ * делится пополам по границам шагов (leftX + k * step), пока части не станут не дороже порога;
+ * простаивающие потоки забирают (work stealing) и части крупных заданий, и следующие задания,
+ * поэтому одно большое задание не задерживает очередь за собой.
+ * Частичные суммы складываются в том же дереве, в котором делилось задание, так что результат
+ * не зависит от числа потоков. От integral без разделения он может отличаться в последних разрядах:
+ * там узлы накапливаются сложением шагов.
+ * Как и в JobExecutor, пул создается на время одного вызова runAll
+ */
+public class SplittingScheduler {
+
+    /**
+     * Порог разделения по умолчанию (шагов в одной части)
+     */
+    public static final long DEFAULT_SPLIT_THRESHOLD = 16_384;
+
+    private final int parallelism;
+    private final long splitThreshold;
+    private PipelineMetrics metrics;
+
+    /**
+     * @param parallelism количество потоков пула
+     * @param splitThreshold наибольшее число шагов, которое считается одной задачей
+     */
+    public SplittingScheduler(int parallelism, long splitThreshold) {
+        if (parallelism < 1) throw new IllegalArgumentException("Count of threads must be at least 1");
+        if (splitThreshold < 1) throw new IllegalArgumentException("Split threshold must be at least 1");
+        this.parallelism = parallelism;
+        this.splitThreshold = splitThreshold;
+    }
+
+    public SplittingScheduler(int parallelism) {
+        this(parallelism, DEFAULT_SPLIT_THRESHOLD);
+    }
+
+    public long getSplitThreshold() {
+        return splitThreshold;
+    }
+
+    /**
+     * Включает сбор метрик: задержкой очереди считается время от вызова runAll до начала задания,
+     * временем вычисления - время до готовности всех его частей
+     * @param metrics метрики или null, чтобы отключить
+     */
+    public void setMetrics(PipelineMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Выполняет все задания и ждет их завершения
+     * @param jobs задания
+     * @return результаты в порядке заданий
+     * @throws InterruptedException если ожидание прервано; незавершенные задания при этом отменяются
+     */
+    public List<IntegrationResult> runAll(Collection<IntegrationJob> jobs) throws InterruptedException {
+        PipelineMetrics metrics = this.metrics;
+        List<JobTask> tasks = new ArrayList<>(jobs.size());
+        for (IntegrationJob job : jobs) {
+            long enqueuedAt = metrics != null ? metrics.startHandoff(tasks.size()) : PipelineMetrics.UNSAMPLED;
+            tasks.add(new JobTask(job, splitThreshold, metrics, enqueuedAt));
+        }
+        if (metrics != null) metrics.onProduced(tasks.size());
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            ForkJoinTask<List<IntegrationResult>> all = pool.submit(() -> {
+                ForkJoinTask.invokeAll(tasks);
+                List<IntegrationResult> results = new ArrayList<>(tasks.size());
+                for (JobTask task : tasks) {
+                    results.add(task.join());
+                }
+                return results;
+            });
+            return all.get();
+        } catch (ExecutionException e) {
+            // JobTask перехватывает исключения заданий, сюда попадают только ошибки JVM
+            throw new IllegalStateException(e.getCause());
+        } finally {
+            pool.shutdownNow();
+            pool.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Оценка стоимости задания - количество шагов метода трапеций
+     * @return число шагов или 0, если задание не делится (табулированная функция,
+     * пустой отрезок или некорректные параметры - их ошибку выдаст само вычисление)
+     */
+    public static long cost(IntegrationJob job) {
+        return segments(job.getFunction(), job.getLeftX(), job.getRightX(), job.getStep());
+    }
+
+    static long segments(Function function, double leftX, double rightX, double step) {
+        if (function instanceof TabulatedFunction || !(step > 0) || !(rightX > leftX)) {
+            return 0;
+        }
+        double estimate = Math.ceil((rightX - leftX) / step);
+        if (!(estimate < Long.MAX_VALUE / 2)) {
+            return 0;
+        }
+        long n = Math.max(1, (long) estimate);
+        // Поправка на ошибку округления при делении, как в Functions
+        while (n > 1 && leftX + (n - 1) * step >= rightX) n--;
+        while (leftX + n * step < rightX) n++;
+        return n;
+    }
+
+    /**
+     * Интеграл по шагам [from, to) из segments шагов отрезка [leftX, rightX]
+     */
+    static double integrateSteps(Function function, double leftX, double rightX, double step,
+                                 long segments, long from, long to) {
+        double a = from == 0 ? leftX : leftX + from * step;
+        double b = to == segments ? rightX : leftX + to * step;
+        return Functions.integral(function, a, b, step);
+    }
+
+    /**
+     * Одно задание: мелкое считается целиком, крупное - деревом RangeTask
+     */
+    private static final class JobTask extends RecursiveTask<IntegrationResult> {
+        private final IntegrationJob job;
+        private final long splitThreshold;
+        private final PipelineMetrics metrics;
+        private final long enqueuedAt;
+
+        JobTask(IntegrationJob job, long splitThreshold, PipelineMetrics metrics, long enqueuedAt) {
+            this.job = job;
+            this.splitThreshold = splitThreshold;
+            this.metrics = metrics;
+            this.enqueuedAt = enqueuedAt;
+        }
+
+        @Override
+        protected IntegrationResult compute() {
+            if (metrics == null) {
+                return integrate();
+            }
+            long start = metrics.startJob(PipelineMetrics.UNSAMPLED, enqueuedAt);
+            IntegrationResult result = integrate();
+            metrics.endJob(start, result.isSuccess());
+            return result;
+        }
+
+        private IntegrationResult integrate() {
+            long segments = cost(job);
+            if (segments <= splitThreshold) {
+                return IntegrationResult.of(job);
+            }
+            try {
+                double value = new RangeTask(job.getFunction(), job.getLeftX(), job.getRightX(), job.getStep(),
+                        segments, 0, segments, splitThreshold).compute();
+                return IntegrationResult.success(job, value);
+            } catch (RuntimeException e) {
+                return IntegrationResult.failure(job, unwrap(e));
+            }
+        }
+
+        /**
+         * join в другом потоке выбрасывает копию исключения с исходным в качестве причины
+         */
+        private static RuntimeException unwrap(RuntimeException e) {
+            Throwable cause = e.getCause();
+            if (cause != null && cause.getClass() == e.getClass()) {
+                return (RuntimeException) cause;
+            }
+            return e;
+        }
+    }
+
+    /**
+     * Шаги [from, to) задания из segments шагов
+     */
+    private static final class RangeTask extends RecursiveTask<Double> {
+        private final Function function;
+        private final double leftX;
+        private final double rightX;
+        private final double step;
+        private final long segments;
+        private final long from;
+        private final long to;
+        private final long splitThreshold;
+
+        RangeTask(Function function, double leftX, double rightX, double step,
+                  long segments, long from, long to, long splitThreshold) {
+            this.function = function;
+            this.leftX = leftX;
+            this.rightX = rightX;
+            this.step = step;
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.splitThreshold = splitThreshold;
+        }
+
+        @Override
+        protected Double compute() {
+            if (to - from <= splitThreshold) {
+                return integrateSteps(function, leftX, rightX, step, segments, from, to);
+            }
+            long middle = (from + to) >>> 1;
+            RangeTask left = new RangeTask(function, leftX, rightX, step, segments, from, middle, splitThreshold);
+            RangeTask right = new RangeTask(function, leftX, rightX, step, segments, middle, to, splitThreshold);
+            left.fork();
+            double rightValue = right.compute();
+            return left.join() + rightValue;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package threads;
+
+/**
+ * Кольцевой буфер заданий для одного производителя и одного потребителя без блокировок
+ * (по схеме LMAX Disruptor). Ячейки JobSlot создаются заранее и используются повторно.
+ * Производитель: claim - заполнить ячейку - publish; потребитель: take - прочитать ячейку - release.
+ * Каждая сторона пишет только свой счетчик (с семантикой release) и читает чужой, а последнее
+ * прочитанное значение чужого счетчика кэширует, поэтому в установившемся режиме обращения
+ * к общей памяти редки. Методы производителя должен вызывать один поток, методы потребителя - другой
+ */
+public final class SpscRingBuffer {
+    private final JobSlot[] slots;
+    private final int mask;
+    private final WaitStrategy waitStrategy;
+
+    // Следующая ячейка для потребителя (пишет потребитель) и для производителя (пишет производитель)
+    private final PaddedSequence head = new PaddedSequence(0);
+    private final PaddedSequence tail = new PaddedSequence(0);
+
+    // Кэшированные значения чужих счетчиков, каждое используется только одной стороной
+    private long producerCachedHead;
+    private long consumerCachedTail;
+
+    private volatile boolean closed;
+
+    /**
+     * @param capacity количество ячеек, степень двойки
+     * @param waitStrategy способ ожидания
+     */
+    public SpscRingBuffer(int capacity, WaitStrategy waitStrategy) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two and at least 2");
+        if (waitStrategy == null) throw new IllegalArgumentException("Wait strategy cannot be null");
+        this.slots = new JobSlot[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new JobSlot();
+        }
+        this.mask = capacity - 1;
+        this.waitStrategy = waitStrategy;
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public WaitStrategy getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    /**
+     * @return количество опубликованных, но еще не освобожденных ячеек (приблизительно)
+     */
+    public int size() {
+        return (int) (tail.get() - head.get());
+    }
+
+    /**
+     * Производитель: ждет свободную ячейку и возвращает ее для заполнения
+     * @throws InterruptedException если ожидание прервано
+     * @throws IllegalStateException если буфер закрыт
+     */
+    public JobSlot claim() throws InterruptedException {
+        if (closed) throw new IllegalStateException("Ring buffer is closed");
+        long next = tail.get();
+        long wrapPoint = next - slots.length;
+        if (producerCachedHead <= wrapPoint) {
+            int attempt = 0;
+            while ((producerCachedHead = head.get()) <= wrapPoint) {
+                if (Thread.interrupted()) throw new InterruptedException();
+                waitStrategy.idle(attempt++);
+            }
+        }
+        return slots[(int) next & mask];
+    }
+
+    /**
+     * Производитель: публикует заполненную ячейку
+     */
+    public void publish() {
+        tail.setOrdered(tail.get() + 1);
+    }
+
+    /**
+     * Производитель: сообщает, что заданий больше не будет. Уже опубликованные ячейки будут прочитаны
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Потребитель: ждет опубликованную ячейку
+     * @return ячейка (действительна до release) или null, если буфер закрыт и все ячейки прочитаны
+     * @throws InterruptedException если ожидание прервано
+     */
+    public JobSlot take() throws InterruptedException {
+        long next = head.get();
+        if (consumerCachedTail <= next) {
+            int attempt = 0;
+            while (true) {
+                // closed читается раньше tail: если буфер уже закрыт, tail содержит последнюю публикацию
+                boolean wasClosed = closed;
+                consumerCachedTail = tail.get();
+                if (consumerCachedTail > next) break;
+                if (wasClosed) return null;
+                if (Thread.interrupted()) throw new InterruptedException();
+                waitStrategy.idle(attempt++);
+            }
+        }
+        return slots[(int) next & mask];
+    }
+
+    /**
+     * Потребитель: освобождает прочитанную ячейку для повторного использования
+     */
+    public void release() {
+        head.setOrdered(head.get() + 1);
+    }
+}
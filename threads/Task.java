@@ -9,6 +9,7 @@ public class Task {
     private double rightX;
     private double step;
     private int taskCount;
+    private long enqueuedAt = PipelineMetrics.UNSAMPLED;
     private volatile boolean isEnd;
 
 
@@ -56,6 +57,17 @@ public class Task {
         this.taskCount = taskCount;
     }
 
+    /**
+     * @return отметка времени передачи задания для PipelineMetrics (см. PipelineMetrics.startHandoff)
+     */
+    public long getEnqueuedAt() {
+        return enqueuedAt;
+    }
+
+    public void setEnqueuedAt(long enqueuedAt) {
+        this.enqueuedAt = enqueuedAt;
+    }
+
     public boolean isEnd() {
         return isEnd;
     }
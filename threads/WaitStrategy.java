@@ -0,0 +1,62 @@
+package threads;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Как поток ждет, пока в кольцевом буфере появятся данные или освободится место.
+ * Первые попытки всегда активные: ожидание в буфере обычно короче, чем перевод потока в сон
+ */
+public enum WaitStrategy {
+
+    /**
+     * Активное ожидание: наименьшая задержка, но ядро занято полностью.
+     * Подходит, только если у каждого потока есть свое ядро
+     */
+    BUSY_SPIN {
+        @Override
+        void idle(int attempt) {
+            Thread.onSpinWait();
+        }
+    },
+
+    /**
+     * После серии активных попыток уступает процессор другим потокам
+     */
+    YIELD {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    },
+
+    /**
+     * После активных попыток и уступок засыпает на короткое время.
+     * Пробуждение по таймауту, поэтому второй стороне не нужно будить поток
+     */
+    PARK {
+        @Override
+        void idle(int attempt) {
+            if (attempt < SPIN_ATTEMPTS) {
+                Thread.onSpinWait();
+            } else if (attempt < SPIN_ATTEMPTS + YIELD_ATTEMPTS) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+    };
+
+    private static final int SPIN_ATTEMPTS = 100;
+    private static final int YIELD_ATTEMPTS = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    /**
+     * Одна итерация ожидания
+     * @param attempt номер неудачной попытки, начиная с 0
+     */
+    abstract void idle(int attempt);
+}